@@ -0,0 +1,53 @@
+package fr.fanto.premierstudiosapi.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import fr.fanto.premierstudiosapi.entities.User;
+import fr.fanto.premierstudiosapi.models.JwtClaims;
+import fr.fanto.premierstudiosapi.utils.JwtUtil;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private static final String SECRET = "x/kzJEd4uW5er2gbAR1tMEMym5wvXXxcn+TkAPoXwIk=";
+
+    private User user;
+    private JwtUtil uncached;
+    private JwtUtil cached;
+    private String token;
+
+    @Setup
+    public void setup() {
+        user = User.builder().email("bench@premierstudios.fr").username("bench").build();
+        // Taille 0 : chaque appel refait la vérification HMAC et le décodage JSON
+        uncached = new JwtUtil(SECRET, 0, 86_400);
+        cached = new JwtUtil(SECRET, 10_000, 86_400);
+        token = cached.generateToken(user);
+        cached.verify(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return uncached.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return uncached.validateToken(token, user);
+    }
+
+    @Benchmark
+    public JwtClaims verifyCached() {
+        return cached.verify(token);
+    }
+}
@@ -0,0 +1,117 @@
+package fr.fanto.premierstudiosapi.benchmarks;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import fr.fanto.premierstudiosapi.PremierStudiosApi;
+import fr.fanto.premierstudiosapi.models.EventView;
+import fr.fanto.premierstudiosapi.repositories.EventRepo;
+import fr.fanto.premierstudiosapi.services.EventSearchIndex;
+import fr.fanto.premierstudiosapi.services.EventService;
+
+// EventRepo.searchEvents (LIKE en base) contre l'index trigrammes, sur une base H2 en mode MySQL
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+
+    private static final String[] WORDS = {
+        "festival", "concert", "jazz", "rock", "opera", "theatre", "cinema", "expo", "atelier", "conference",
+        "soiree", "gala", "marche", "salon", "tournoi", "projection", "lecture", "danse", "cirque", "brunch"
+    };
+    private static final String[] CITIES = {
+        "Paris", "Lyon", "Marseille", "Toulouse", "Nantes", "Bordeaux", "Lille", "Rennes", "Nice", "Strasbourg"
+    };
+
+    @Param({ "1000", "100000" })
+    private int events;
+
+    private ConfigurableApplicationContext context;
+    private EventRepo eventRepo;
+    private EventService eventService;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(PremierStudiosApi.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.show-sql=false")
+                .run();
+        eventRepo = context.getBean(EventRepo.class);
+        eventService = context.getBean(EventService.class);
+        seed(context.getBean(JdbcTemplate.class));
+        context.getBean(EventSearchIndex.class).rebuild();
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO user (email, username, password) VALUES (?, ?, ?)",
+                "bench@premierstudios.fr", "bench", "unused");
+        Random random = new Random(42);
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            String location = CITIES[random.nextInt(CITIES.length)] + ", salle " + random.nextInt(50);
+            rows.add(new Object[] {
+                name, Date.valueOf(LocalDate.of(2026, 1, 1).plusDays(random.nextInt(730))),
+                Time.valueOf(LocalTime.of(8 + random.nextInt(14), 0)), location, "Description " + i,
+                "bench@premierstudios.fr", now
+            });
+        }
+        jdbc.batchUpdate("INSERT INTO event (name, date, time, location, description, attendee_count, created_by_email, " +
+                "version, updated_at) VALUES (?, ?, ?, ?, ?, 0, ?, 0, ?)", rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<EventView> databaseByName() {
+        return eventRepo.searchEvents("jazz", null, null, Limit.of(EventService.MAX_SEARCH_RESULTS));
+    }
+
+    @Benchmark
+    public List<EventView> indexByName() {
+        return eventService.searchEvents("jazz", null, null);
+    }
+
+    @Benchmark
+    public List<EventView> databaseByNameAndLocation() {
+        return eventRepo.searchEvents("opera gala", null, "lyon", Limit.of(EventService.MAX_SEARCH_RESULTS));
+    }
+
+    @Benchmark
+    public List<EventView> indexByNameAndLocation() {
+        return eventService.searchEvents("opera gala", null, "lyon");
+    }
+}
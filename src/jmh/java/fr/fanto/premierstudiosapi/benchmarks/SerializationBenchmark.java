@@ -0,0 +1,134 @@
+package fr.fanto.premierstudiosapi.benchmarks;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import fr.fanto.premierstudiosapi.entities.Event;
+import fr.fanto.premierstudiosapi.entities.User;
+import fr.fanto.premierstudiosapi.models.ApiResponse;
+import fr.fanto.premierstudiosapi.models.EventView;
+
+// Coût Jackson d'une page d'événements : graphe d'entités (ancienne réponse) contre modèle de lecture EventView,
+// puis EventView en JSON, CBOR et Smile. Les tailles de payload sont affichées au setup de chaque configuration.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    @Param({ "10", "100" })
+    private int pageSize;
+
+    @Param({ "20" })
+    private int attendeesPerEvent;
+
+    private ObjectMapper mapper;
+    private ObjectMapper cborMapper;
+    private ObjectMapper smileMapper;
+    private ApiResponse<Page<Event>> entityPage;
+    private ApiResponse<Page<EventView>> viewPage;
+
+    @Setup
+    public void setup() {
+        // Même configuration que l'ObjectMapper de Spring Boot pour les types java.time
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        cborMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .factory(new CBORFactory())
+                .build();
+        smileMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .factory(new SmileFactory())
+                .build();
+
+        User creator = user(0);
+        List<Event> events = new ArrayList<>();
+        List<EventView> views = new ArrayList<>();
+        for (long id = 1; id <= pageSize; id++) {
+            Event event = Event.builder()
+                    .id(id)
+                    .name("Concert " + id)
+                    .date(LocalDate.of(2026, 11, 1).plusDays(id))
+                    .time(LocalTime.of(20, 30))
+                    .location("Paris, salle " + id)
+                    .description("Soirée de lancement de la saison, ouverture des portes à 19h30")
+                    .capacity(500)
+                    .attendeeCount(attendeesPerEvent)
+                    .users(IntStream.range(1, attendeesPerEvent + 1).mapToObj(SerializationBenchmark::user).toList())
+                    .createdBy(creator)
+                    .version(3)
+                    .updatedAt(Instant.now())
+                    .build();
+            events.add(event);
+            views.add(new EventView(event.getId(), event.getName(), event.getDate(), event.getTime(), event.getLocation(),
+                    event.getDescription(), event.getCapacity(), creator.getUsername(), event.getAttendeeCount(),
+                    event.getVersion(), event.getUpdatedAt()));
+        }
+        PageRequest pageable = PageRequest.of(0, pageSize);
+        entityPage = new ApiResponse<>(true, 200, "Events fetched successfully", new PageImpl<>(events, pageable, 10_000));
+        viewPage = new ApiResponse<>(true, 200, "Events fetched successfully", new PageImpl<>(views, pageable, 10_000));
+
+        try {
+            System.out.printf("%npayload bytes pageSize=%d: entityGraph=%d json=%d cbor=%d smile=%d%n", pageSize,
+                    mapper.writeValueAsBytes(entityPage).length,
+                    mapper.writeValueAsBytes(viewPage).length,
+                    cborMapper.writeValueAsBytes(viewPage).length,
+                    smileMapper.writeValueAsBytes(viewPage).length);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static User user(int i) {
+        return User.builder()
+                .email("user" + i + "@premierstudios.fr")
+                .username("user" + i)
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3QpGdZ6CqX0mRr0VY5CkWGa")
+                .build();
+    }
+
+    @Benchmark
+    public byte[] entityGraph() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(entityPage);
+    }
+
+    @Benchmark
+    public byte[] readModel() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(viewPage);
+    }
+
+    @Benchmark
+    public byte[] readModelCbor() throws JsonProcessingException {
+        return cborMapper.writeValueAsBytes(viewPage);
+    }
+
+    @Benchmark
+    public byte[] readModelSmile() throws JsonProcessingException {
+        return smileMapper.writeValueAsBytes(viewPage);
+    }
+}
@@ -0,0 +1,79 @@
+package fr.fanto.premierstudiosapi.benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import fr.fanto.premierstudiosapi.validator.EventValidator;
+import fr.fanto.premierstudiosapi.validator.UserValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ValidationBenchmark {
+
+    private ValidatorFactory factory;
+    private Validator validator;
+    private EventValidator validEvent;
+    private EventValidator invalidEvent;
+    private UserValidator validUser;
+
+    @Setup
+    public void setup() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+        validEvent = EventValidator.builder()
+                .name("Festival de jazz")
+                .date(LocalDate.now().plusDays(30))
+                .time(LocalTime.of(20, 30))
+                .location("Paris, La Villette")
+                .description("Trois scènes et vingt concerts")
+                .capacity(500)
+                .build();
+        invalidEvent = EventValidator.builder()
+                .name("J")
+                .date(LocalDate.now().minusDays(1))
+                .location("P")
+                .capacity(0)
+                .build();
+        validUser = UserValidator.builder()
+                .email("jane.doe@premierstudios.fr")
+                .password("Sup3r@Secret")
+                .username("jane.doe")
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<EventValidator>> validEvent() {
+        return validator.validate(validEvent);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<EventValidator>> invalidEvent() {
+        return validator.validate(invalidEvent);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserValidator>> validUser() {
+        return validator.validate(validUser);
+    }
+}
@@ -0,0 +1,264 @@
+package fr.fanto.premierstudiosapi.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Générateur de charge pour l'API démarrée avec le profil loadtest (./gradlew bootRun -Ploadtest).
+// Arguments clé=valeur : baseUrl, duration (s), warmup (s), concurrency, users, events, password, tokens,
+// et les poids du mélange : login, search, page, cursor, event, register, attendees.
+// Les comptes et la répartition des événements par créateur sont ceux de LoadTestSeeder.
+public class LoadGenerator {
+
+    private static final Pattern TOKEN = Pattern.compile("\"data\"\\s*:\\s*\"([^\"]+)\"");
+    private static final String[] WORDS = { "festival", "concert", "jazz", "rock", "opera", "theatre", "expo", "gala" };
+    private static final String[] CITIES = { "Paris", "Lyon", "Marseille", "Toulouse", "Nantes", "Bordeaux" };
+
+    private final Map<String, String> options;
+    private final HttpClient client;
+    private final String baseUrl;
+    private final int users;
+    private final int events;
+    private final String password;
+    private final String[] operations;
+    private final int[] cumulativeWeights;
+    private String[] tokens;
+
+    public static void main(String[] args) throws Exception {
+        new LoadGenerator(parse(args)).run();
+    }
+
+    LoadGenerator(Map<String, String> options) {
+        this.options = options;
+        this.baseUrl = option("baseUrl", "http://localhost:8080");
+        this.users = intOption("users", 1000);
+        this.events = intOption("events", 10000);
+        this.password = option("password", "LoadTest@2026");
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        mix.put("login", intOption("login", 5));
+        mix.put("search", intOption("search", 25));
+        mix.put("page", intOption("page", 20));
+        mix.put("cursor", intOption("cursor", 15));
+        mix.put("event", intOption("event", 15));
+        mix.put("register", intOption("register", 10));
+        mix.put("attendees", intOption("attendees", 10));
+        operations = mix.keySet().toArray(String[]::new);
+        cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) throw new IllegalArgumentException("At least one operation weight must be positive");
+    }
+
+    void run() throws Exception {
+        int concurrency = intOption("concurrency", 64);
+        int warmup = intOption("warmup", 10);
+        int duration = intOption("duration", 60);
+
+        // Un jeton par compte utilisé : l'utilisateur i possède les événements i+1, i+1+users, ...
+        tokens = new String[Math.min(users, intOption("tokens", 100))];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = login(i);
+            if (tokens[i] == null) throw new IllegalStateException("Login failed for " + email(i) + ", is the loadtest profile active?");
+        }
+        System.out.printf("baseUrl=%s concurrency=%d warmup=%ds duration=%ds users=%d events=%d tokens=%d%n",
+                baseUrl, concurrency, warmup, duration, users, events, tokens.length);
+
+        // Chauffe du JIT, des caches et du pool de connexions, résultats ignorés
+        drive(concurrency, warmup);
+        List<Recorder> recorders = drive(concurrency, duration);
+        report(recorders, duration);
+    }
+
+    private List<Recorder> drive(int concurrency, int seconds) throws InterruptedException {
+        List<Recorder> recorders = new ArrayList<>(concurrency);
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                Recorder recorder = new Recorder(operations.length);
+                recorders.add(recorder);
+                workers.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        int operation = pick();
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = execute(operations[operation]);
+                        } catch (IOException e) {
+                            ok = false;
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        recorder.record(operation, System.nanoTime() - start, ok);
+                    }
+                });
+            }
+        }
+        return recorders;
+    }
+
+    private boolean execute(String operation) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int user = random.nextInt(tokens.length);
+        return switch (operation) {
+            case "login" -> login(random.nextInt(users)) != null;
+            case "search" -> get("/api/events/search?" + (random.nextBoolean()
+                    ? "name=" + WORDS[random.nextInt(WORDS.length)]
+                    : "location=" + CITIES[random.nextInt(CITIES.length)]), null);
+            case "page" -> get("/api/events?page=" + random.nextInt(Math.max(1, events / 10)) + "&size=10&sortBy=date", null);
+            case "cursor" -> get("/api/events?size=20&after=" + cursor(random.nextInt(events)), null);
+            case "event" -> get("/api/events/" + (1 + random.nextInt(events)), null);
+            case "register" -> send(HttpRequest.newBuilder(uri("/api/events/" + (1 + random.nextInt(events)) + "/register"))
+                    .header("Authorization", "Bearer " + tokens[user])
+                    .POST(HttpRequest.BodyPublishers.noBody()));
+            case "attendees" -> get("/api/events/" + ownedEvent(user, random) + "/attendees", tokens[user]);
+            default -> throw new IllegalStateException(operation);
+        };
+    }
+
+    private int ownedEvent(int user, ThreadLocalRandom random) {
+        int owned = Math.max(1, (events - user + users - 1) / users);
+        return user + 1 + random.nextInt(owned) * users;
+    }
+
+    private String login(int user) throws IOException, InterruptedException {
+        String form = "email=" + URLEncoder.encode(email(user), StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) return null;
+        Matcher matcher = TOKEN.matcher(response.body());
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private boolean get(String path, String token) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path)).GET();
+        if (token != null) request.header("Authorization", "Bearer " + token);
+        return send(request);
+    }
+
+    private boolean send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request.timeout(Duration.ofSeconds(30)).build(),
+                HttpResponse.BodyHandlers.discarding());
+        // 409 = événement complet, un refus métier attendu et non une erreur
+        return response.statusCode() < 400 || response.statusCode() == 409;
+    }
+
+    private int pick() {
+        int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) return i;
+        }
+        return cumulativeWeights.length - 1;
+    }
+
+    private void report(List<Recorder> recorders, int seconds) {
+        System.out.printf("%-10s %9s %10s %9s %9s %9s %9s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors");
+        for (int op = 0; op < operations.length; op++) {
+            int count = 0;
+            int errors = 0;
+            for (Recorder recorder : recorders) {
+                count += recorder.counts[op];
+                errors += recorder.errors[op];
+            }
+            if (count == 0) continue;
+            long[] latencies = new long[count];
+            int offset = 0;
+            for (Recorder recorder : recorders) {
+                System.arraycopy(recorder.latencies[op], 0, latencies, offset, recorder.counts[op]);
+                offset += recorder.counts[op];
+            }
+            Arrays.sort(latencies);
+            System.out.printf("%-10s %9d %10.1f %9.2f %9.2f %9.2f %9.2f %7.2f%%%n",
+                    operations[op], count, (double) count / seconds,
+                    percentile(latencies, 0.50) / 1e6,
+                    percentile(latencies, 0.95) / 1e6,
+                    percentile(latencies, 0.99) / 1e6,
+                    latencies[count - 1] / 1e6,
+                    100.0 * errors / count);
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.max(0, Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1))];
+    }
+
+    private static String cursor(int id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(("id|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String email(int user) {
+        return "user" + user + "@loadtest.local";
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private String option(String key, String defaultValue) {
+        return options.getOrDefault(key, defaultValue);
+    }
+
+    private int intOption(String key, int defaultValue) {
+        return options.containsKey(key) ? Integer.parseInt(options.get(key)) : defaultValue;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) throw new IllegalArgumentException("Expected key=value, got " + arg);
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    // Latences propres à chaque worker, fusionnées à la fin : aucune contention pendant la mesure
+    private static final class Recorder {
+
+        private final long[][] latencies;
+        private final int[] counts;
+        private final int[] errors;
+
+        Recorder(int operations) {
+            latencies = new long[operations][1024];
+            counts = new int[operations];
+            errors = new int[operations];
+        }
+
+        void record(int operation, long nanos, boolean ok) {
+            if (counts[operation] == latencies[operation].length) {
+                latencies[operation] = Arrays.copyOf(latencies[operation], counts[operation] * 2);
+            }
+            latencies[operation][counts[operation]++] = nanos;
+            if (!ok) errors[operation]++;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package fr.fanto.premierstudiosapi.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Compare threads plateforme et virtuels sur un aller-retour réseau bloquant, comme un appel JDBC.
+// Arguments : requests concurrency latencyMs platformThreads
+// Lancer avec -Djdk.tracePinnedThreads=short pour voir les épinglages du scénario synchronized.
+public class VirtualThreadBenchmark {
+
+    private static final Object[] MONITORS = new Object[1024];
+
+    static {
+        Arrays.setAll(MONITORS, i -> new Object());
+    }
+
+    public static void main(String[] args) throws Exception {
+        int requests = intArg(args, 0, 20_000);
+        int concurrency = intArg(args, 1, 2_000);
+        int latencyMs = intArg(args, 2, 20);
+        int platformThreads = intArg(args, 3, 200);
+
+        System.out.printf("requests=%d concurrency=%d latency=%dms platformThreads=%d carriers=%d%n",
+                requests, concurrency, latencyMs, platformThreads, Runtime.getRuntime().availableProcessors());
+
+        try (LatencyServer server = new LatencyServer(latencyMs)) {
+            // Chauffe du JIT et de la pile réseau, résultat ignoré
+            run(Executors.newVirtualThreadPerTaskExecutor(), server.port(), Math.min(requests, 2_000), concurrency, false);
+
+            report("platform", run(Executors.newFixedThreadPool(platformThreads), server.port(), requests, concurrency, false));
+            report("virtual", run(Executors.newVirtualThreadPerTaskExecutor(), server.port(), requests, concurrency, false));
+            report("virtual-pinned", run(Executors.newVirtualThreadPerTaskExecutor(), server.port(), requests, concurrency, true));
+        }
+    }
+
+    private record Result(long elapsedNanos, long[] latencies, int errors) {}
+
+    private static Result run(ExecutorService executor, int port, int requests, int concurrency, boolean pinned)
+            throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore clients = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(requests);
+
+        long start = System.nanoTime();
+        try (executor) {
+            for (int i = 0; i < requests; i++) {
+                clients.acquire();
+                int index = i;
+                long arrival = System.nanoTime();
+                executor.execute(() -> {
+                    try {
+                        if (pinned) {
+                            // Simule un driver qui bloque sur une socket à l'intérieur d'un bloc synchronized
+                            synchronized (MONITORS[index % MONITORS.length]) {
+                                roundTrip(port);
+                            }
+                        } else {
+                            roundTrip(port);
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        latencies[index] = System.nanoTime() - arrival;
+                        clients.release();
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        }
+        return new Result(System.nanoTime() - start, latencies, errors.get());
+    }
+
+    private static void roundTrip(int port) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.getOutputStream().write(1);
+            if (socket.getInputStream().read() < 0) throw new IOException("Connection closed by server");
+        }
+    }
+
+    private static void report(String mode, Result result) {
+        long[] sorted = result.latencies().clone();
+        Arrays.sort(sorted);
+        double seconds = result.elapsedNanos() / 1e9;
+        System.out.printf("%-16s throughput=%9.1f req/s  p50=%7.2fms  p99=%7.2fms  max=%7.2fms  errors=%d%n",
+                mode,
+                sorted.length / seconds,
+                percentile(sorted, 0.50) / 1e6,
+                percentile(sorted, 0.99) / 1e6,
+                sorted[sorted.length - 1] / 1e6,
+                result.errors());
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+
+    // Serveur local qui répond après latencyMs, un thread virtuel par connexion : il ne doit jamais être le goulot
+    private static final class LatencyServer implements AutoCloseable {
+
+        private final ServerSocket serverSocket;
+        private final ExecutorService handlers = Executors.newVirtualThreadPerTaskExecutor();
+
+        LatencyServer(int latencyMs) throws IOException {
+            serverSocket = new ServerSocket(0, 16_384, InetAddress.getLoopbackAddress());
+            Thread.ofPlatform().daemon().name("latency-server").start(() -> {
+                while (!serverSocket.isClosed()) {
+                    try {
+                        Socket socket = serverSocket.accept();
+                        handlers.execute(() -> handle(socket, latencyMs));
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        private static void handle(Socket socket, int latencyMs) {
+            try (socket) {
+                InputStream in = socket.getInputStream();
+                if (in.read() < 0) return;
+                Thread.sleep(latencyMs);
+                socket.getOutputStream().write(1);
+            } catch (IOException | InterruptedException e) {
+                // Connexion abandonnée par le client
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+            handlers.shutdownNow();
+        }
+    }
+}
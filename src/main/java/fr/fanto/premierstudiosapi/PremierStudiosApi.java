@@ -2,8 +2,10 @@ package fr.fanto.premierstudiosapi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class PremierStudiosApi {
 
 	public static void main(String[] args) {
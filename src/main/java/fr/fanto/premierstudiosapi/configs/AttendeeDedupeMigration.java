@@ -0,0 +1,110 @@
+package fr.fanto.premierstudiosapi.configs;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Les anciennes versions stockaient les inscrits dans une List : event_users peut contenir des doublons
+// (event_id, users_email). Hibernate (ddl-auto=update) échouerait alors à créer uk_event_users avec un simple
+// avertissement, et INSERT IGNORE ne protégerait plus le compteur. Les doublons sont supprimés avant que le schéma
+// JPA soit mis à jour. Les compteurs attendee_count ne sont recalculés que si des doublons ont été supprimés ou si
+// la colonne n'existait pas encore (ajoutée à 0 par Hibernate), par tranches d'id, avant que l'application soit prête.
+@Slf4j
+@Configuration
+public class AttendeeDedupeMigration implements InitializingBean, SmartInitializingSingleton {
+
+    // Événements recalculés par transaction : chaque tranche ne verrouille que ses propres lignes
+    private static final int RECOUNT_BATCH = 1000;
+
+    private final DataSource dataSource;
+    private boolean recountNeeded;
+
+    public AttendeeDedupeMigration(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    // L'EntityManagerFactory (et donc la mise à jour du schéma) attend la fin de cette migration
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor attendeeDedupeBeforeJpa() {
+        return new EntityManagerFactoryDependsOnPostProcessor(AttendeeDedupeMigration.class);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        recountNeeded = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) AttendeeDedupeMigration::lacksAttendeeCount));
+        if (!Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) AttendeeDedupeMigration::needsDedupe)))
+            return;
+        Integer duplicates = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM event_users " +
+                "GROUP BY event_id, users_email HAVING COUNT(*) > 1) d", Integer.class);
+        if (duplicates == null || duplicates == 0) return;
+
+        log.warn("Removing duplicate rows for {} registrations before adding uk_event_users", duplicates);
+        // Table temporaire propre à la connexion : la transaction garde la même connexion du début à la fin
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource)).executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TEMPORARY TABLE event_users_dedupe AS " +
+                    "SELECT DISTINCT event_id, users_email FROM event_users");
+            jdbcTemplate.update("DELETE FROM event_users");
+            jdbcTemplate.update("INSERT INTO event_users (event_id, users_email) " +
+                    "SELECT event_id, users_email FROM event_users_dedupe");
+            jdbcTemplate.execute("DROP TEMPORARY TABLE event_users_dedupe");
+        });
+        recountNeeded = true;
+    }
+
+    // Après la mise à jour du schéma (colonne présente) et avant le démarrage du serveur web et ApplicationReadyEvent :
+    // aucune inscription concurrente, et les agrégats chargés au démarrage lisent des compteurs déjà justes
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!recountNeeded) return;
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM event", Long.class);
+        if (maxId == null) return;
+        log.info("Recounting attendees of events up to id {}", maxId);
+        for (long from = 0; from <= maxId; from += RECOUNT_BATCH) {
+            jdbcTemplate.update("UPDATE event e SET attendee_count = " +
+                    "(SELECT COUNT(*) FROM event_users eu WHERE eu.event_id = e.id) WHERE e.id > ? AND e.id <= ?",
+                    from, from + RECOUNT_BATCH);
+        }
+    }
+
+    // Base existante sans compteur d'inscrits : la colonne va être ajoutée avec la valeur 0
+    private static boolean lacksAttendeeCount(Connection connection) throws SQLException {
+        DatabaseMetaData meta = connection.getMetaData();
+        try (ResultSet tables = meta.getTables(connection.getCatalog(), null, "event", new String[] { "TABLE" })) {
+            if (!tables.next()) return false;
+        }
+        try (ResultSet columns = meta.getColumns(connection.getCatalog(), null, "event", "attendee_count")) {
+            return !columns.next();
+        }
+    }
+
+    // Rien à faire sur une base neuve (Hibernate crée la table avec la contrainte) ni une fois la contrainte posée
+    private static boolean needsDedupe(Connection connection) throws SQLException {
+        DatabaseMetaData meta = connection.getMetaData();
+        try (ResultSet tables = meta.getTables(connection.getCatalog(), null, "event_users", new String[] { "TABLE" })) {
+            if (!tables.next()) return false;
+        }
+        try (ResultSet indexes = meta.getIndexInfo(connection.getCatalog(), null, "event_users", true, true)) {
+            while (indexes.next()) {
+                if ("uk_event_users".equalsIgnoreCase(indexes.getString("INDEX_NAME"))) return false;
+            }
+        }
+        return true;
+    }
+}
@@ -4,14 +4,19 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.security.access.AccessDeniedException;
 
+import fr.fanto.premierstudiosapi.exceptions.BadRequestException;
+import fr.fanto.premierstudiosapi.exceptions.EventFullException;
 import fr.fanto.premierstudiosapi.exceptions.InternalServerErrorException;
 import fr.fanto.premierstudiosapi.exceptions.ResourceNotFoundException;
+import fr.fanto.premierstudiosapi.exceptions.TooManyRequestsException;
 import fr.fanto.premierstudiosapi.exceptions.UserAlreadyExistsException;
 import fr.fanto.premierstudiosapi.models.ApiResponse;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -53,6 +58,29 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+        responseCode = "400",
+        description = "Bad Request",
+        content = @Content(
+            mediaType = "application/json",
+            examples = {
+                @ExampleObject(
+                    name = "Bad Request Example",
+                    value = "{\n" +
+                            "  \"success\": false,\n" +
+                            "  \"statusCode\": 400,\n" +
+                            "  \"message\": \"Unsupported sort key: location, expected one of id, date, name\",\n" +
+                            "  \"data\": null\n" +
+                            "}"
+                )
+            }
+        )
+    )
+    public ResponseEntity<ApiResponse<Object>> handleBadRequestException(BadRequestException ex) {
+        ApiResponse<Object> response = new ApiResponse<>(false, 400, ex.getMessage(), null);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
 
     @ExceptionHandler(AuthenticationException.class)
     @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -173,4 +201,77 @@ public class GlobalExceptionHandler {
         ApiResponse<Object> response = new ApiResponse<>(false, 404, ex.getMessage(), null);
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
+
+    @ExceptionHandler(EventFullException.class)
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+        responseCode = "409",
+        description = "Event Full",
+        content = @Content(
+            mediaType = "application/json",
+            examples = {
+                @ExampleObject(
+                    name = "Event Full Example",
+                    value = "{\n" +
+                            "  \"success\": false,\n" +
+                            "  \"statusCode\": 409,\n" +
+                            "  \"message\": \"Event is full\",\n" +
+                            "  \"data\": null\n" +
+                            "}"
+                )
+            }
+        )
+    )
+    public ResponseEntity<ApiResponse<Object>> handleEventFullException(EventFullException ex) {
+        ApiResponse<Object> response = new ApiResponse<>(false, 409, ex.getMessage(), null);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    // Modification ou suppression concurrente du même événement (@Version), détectée au commit
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+        responseCode = "409",
+        description = "Concurrent Modification",
+        content = @Content(
+            mediaType = "application/json",
+            examples = {
+                @ExampleObject(
+                    name = "Concurrent Modification Example",
+                    value = "{\n" +
+                            "  \"success\": false,\n" +
+                            "  \"statusCode\": 409,\n" +
+                            "  \"message\": \"The event was modified concurrently, reload it and retry\",\n" +
+                            "  \"data\": null\n" +
+                            "}"
+                )
+            }
+        )
+    )
+    public ResponseEntity<ApiResponse<Object>> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        ApiResponse<Object> response = new ApiResponse<>(false, 409, "The event was modified concurrently, reload it and retry", null);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(
+        responseCode = "429",
+        description = "Too Many Requests",
+        content = @Content(
+            mediaType = "application/json",
+            examples = {
+                @ExampleObject(
+                    name = "Too Many Requests Example",
+                    value = "{\n" +
+                            "  \"success\": false,\n" +
+                            "  \"statusCode\": 429,\n" +
+                            "  \"message\": \"Too many login attempts in progress, retry later\",\n" +
+                            "  \"data\": null\n" +
+                            "}"
+                )
+            }
+        )
+    )
+    public ResponseEntity<ApiResponse<Object>> handleTooManyRequestsException(TooManyRequestsException ex) {
+        ApiResponse<Object> response = new ApiResponse<>(false, 429, ex.getMessage(), null);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(response);
+    }
 }
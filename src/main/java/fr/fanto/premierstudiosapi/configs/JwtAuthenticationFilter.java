@@ -5,8 +5,8 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -14,21 +14,34 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import fr.fanto.premierstudiosapi.entities.User;
+import fr.fanto.premierstudiosapi.models.JwtClaims;
+import fr.fanto.premierstudiosapi.services.TokenDenylist;
 import fr.fanto.premierstudiosapi.utils.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.stream.Collectors;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final TokenDenylist denylist;
     private final UserDetailsService userDetailsService;
+    private final boolean statelessPrincipal;
+    private final Timer validTokenTimer;
+    private final Timer invalidTokenTimer;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, @Lazy UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, TokenDenylist denylist, @Lazy UserDetailsService userDetailsService,
+                                   @Value("${security.principal.stateless:true}") boolean statelessPrincipal,
+                                   MeterRegistry registry) {
         this.jwtUtil = jwtUtil;
+        this.denylist = denylist;
         this.userDetailsService = userDetailsService;
+        this.statelessPrincipal = statelessPrincipal;
+        this.validTokenTimer = verifyTimer(registry, "valid");
+        this.invalidTokenTimer = verifyTimer(registry, "invalid");
     }
 
     @Override
@@ -36,26 +49,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         String authHeader = request.getHeader("Authorization");
-        String jwt = null;
-        String userEmail = null;
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
-            userEmail = jwtUtil.extractEmail(jwt);
-        }
-
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
-
-            if (jwtUtil.validateToken(jwt, userDetails)) {
-                List<String> roles = jwtUtil.extractRoles(jwt);
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            Timer.Sample sample = Timer.start();
+            JwtClaims claims = jwtUtil.verify(authHeader.substring(7));
+            sample.stop(claims != null ? validTokenTimer : invalidTokenTimer);
 
-                var authorities = roles.stream()
-                        .map(SimpleGrantedAuthority::new)
-                        .collect(Collectors.toList());
+            // Un token révoqué au logout est traité comme un token invalide
+            if (claims != null && !denylist.isRevoked(claims)) {
+                UserDetails userDetails = statelessPrincipal
+                        ? User.builder().email(claims.email()).build()
+                        : userDetailsService.loadUserByUsername(claims.email());
 
                 var authToken = new org.springframework.security.authentication.UsernamePasswordAuthenticationToken(
-                        userDetails, null, authorities);
+                        userDetails, null, claims.authorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -63,5 +71,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
 
+    private static Timer verifyTimer(MeterRegistry registry, String result) {
+        return Timer.builder("auth.jwt.verify")
+                .description("JWT signature and claims verification time, cache hits included")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,116 @@
+package fr.fanto.premierstudiosapi.configs;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Remplit la base du profil loadtest avant que l'index de recherche et les compteurs ne soient construits.
+// L'utilisateur i est user{i}@loadtest.local et crée les événements d'id i+1, i+1+users, ... (le générateur de charge s'appuie dessus)
+@Slf4j
+@Component
+@Profile("loadtest")
+public class LoadTestSeeder implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String[] WORDS = {
+        "festival", "concert", "jazz", "rock", "opera", "theatre", "cinema", "expo", "atelier", "conference",
+        "soiree", "gala", "marche", "salon", "tournoi", "projection", "lecture", "danse", "cirque", "brunch"
+    };
+    private static final String[] CITIES = {
+        "Paris", "Lyon", "Marseille", "Toulouse", "Nantes", "Bordeaux", "Lille", "Rennes", "Nice", "Strasbourg"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final int users;
+    private final int events;
+    private final int registrations;
+    private final String password;
+
+    public LoadTestSeeder(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder,
+                          @Value("${loadtest.seed.users}") int users,
+                          @Value("${loadtest.seed.events}") int events,
+                          @Value("${loadtest.seed.registrations}") int registrations,
+                          @Value("${loadtest.seed.password}") String password) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.users = users;
+        this.events = events;
+        this.registrations = registrations;
+        this.password = password;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.currentTimeMillis();
+        Random random = new Random(42);
+
+        // Un seul hash BCrypt pour tous les comptes : le seeding ne doit pas coûter users × 100 ms
+        String hash = passwordEncoder.encode(password);
+        List<Object[]> userRows = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            userRows.add(new Object[] { email(i), "user" + i, hash });
+        }
+        insert("INSERT INTO user (email, username, password) VALUES (?, ?, ?)", userRows);
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> eventRows = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            eventRows.add(new Object[] {
+                WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i,
+                Date.valueOf(LocalDate.now().plusDays(random.nextInt(365))),
+                Time.valueOf(LocalTime.of(8 + random.nextInt(14), random.nextBoolean() ? 0 : 30)),
+                CITIES[random.nextInt(CITIES.length)] + ", salle " + random.nextInt(50),
+                "Événement généré pour les tests de charge",
+                email(i % users),
+                now
+            });
+        }
+        insert("INSERT INTO event (name, date, time, location, description, attendee_count, created_by_email, " +
+               "version, updated_at) VALUES (?, ?, ?, ?, ?, 0, ?, 0, ?)", eventRows);
+
+        Set<Long> pairs = new HashSet<>();
+        List<Object[]> registrationRows = new ArrayList<>(registrations);
+        long maxPairs = (long) users * events;
+        while (registrationRows.size() < registrations && pairs.size() < maxPairs) {
+            int event = random.nextInt(events);
+            int user = random.nextInt(users);
+            if (pairs.add((long) event * users + user)) {
+                registrationRows.add(new Object[] { event + 1L, email(user) });
+            }
+        }
+        insert("INSERT INTO event_users (event_id, users_email) VALUES (?, ?)", registrationRows);
+
+        log.info("Load test data seeded: {} users, {} events, {} registrations in {} ms",
+                users, events, registrationRows.size(), System.currentTimeMillis() - start);
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+
+    private static String email(int i) {
+        return "user" + i + "@loadtest.local";
+    }
+}
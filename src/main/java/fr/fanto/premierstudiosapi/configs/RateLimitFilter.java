@@ -0,0 +1,142 @@
+package fr.fanto.premierstudiosapi.configs;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.fanto.premierstudiosapi.entities.User;
+import fr.fanto.premierstudiosapi.models.ApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Limitation de débit par email authentifié ou par IP, placée après JwtAuthenticationFilter.
+// Chaque compteur est un seau à jetons en GCRA : une seule date théorique d'arrivée dans un AtomicLong, mise à jour
+// par CAS, sans verrou. Les compteurs vivent dans une ConcurrentHashMap par règle et sont supprimés une fois inactifs.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final List<Limit> limits;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry registry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.limits = properties.getRules().stream().map(rule -> new Limit(rule, registry)).toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || limits.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Limit limit = match(request);
+        if (limit != null) {
+            long waitNanos = limit.acquire(identity(request, limit.rule.getKey()), System.nanoTime());
+            if (waitNanos > 0) {
+                limit.rejected.increment();
+                reject(response, waitNanos);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private Limit match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Limit limit : limits) {
+            String method = limit.rule.getMethod();
+            if ((method == null || method.equalsIgnoreCase(request.getMethod())) && MATCHER.match(limit.rule.getPath(), path)) {
+                return limit;
+            }
+        }
+        return null;
+    }
+
+    private static String identity(HttpServletRequest request, RateLimitProperties.KeyType key) {
+        if (key != RateLimitProperties.KeyType.IP) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof User user) {
+                return user.getEmail();
+            }
+        }
+        // Sans utilisateur authentifié, une règle USER retombe sur l'IP plutôt que de laisser passer.
+        // Derrière un proxy, l'adresse du client vient de X-Forwarded-For (server.forward-headers-strategy=native) :
+        // sans cela tous les clients partageraient le seau de l'adresse du proxy
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ApiResponse<>(false, 429, "Too many requests, retry in " + retryAfter + "s", null));
+    }
+
+    // Supprime les compteurs pleins depuis idle-eviction-seconds : un client qui revient repart d'un seau plein
+    @Scheduled(fixedDelay = 60, timeUnit = TimeUnit.SECONDS)
+    public void evictIdle() {
+        long threshold = System.nanoTime() - TimeUnit.SECONDS.toNanos(properties.getIdleEvictionSeconds());
+        for (Limit limit : limits) {
+            limit.buckets.values().removeIf(tat -> tat.get() < threshold);
+        }
+    }
+
+    static final class Limit {
+
+        private final RateLimitProperties.Rule rule;
+        private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        // Intervalle entre deux jetons et tolérance de rafale, en nanosecondes
+        private final long emissionInterval;
+        private final long burstTolerance;
+        private final Counter rejected;
+
+        Limit(RateLimitProperties.Rule rule, MeterRegistry registry) {
+            this.rule = rule;
+            this.emissionInterval = (long) (TimeUnit.SECONDS.toNanos(1) / rule.getRefillPerSecond());
+            this.burstTolerance = emissionInterval * Math.max(1, rule.getCapacity());
+            this.rejected = Counter.builder("http.server.rate-limited")
+                    .description("Requests rejected by the rate limiter")
+                    .tag("rule", (rule.getMethod() == null ? "" : rule.getMethod() + " ") + rule.getPath())
+                    .register(registry);
+        }
+
+        // 0 si la requête passe, sinon le temps à attendre avant le prochain jeton
+        long acquire(String key, long now) {
+            AtomicLong tat = buckets.get(key);
+            if (tat == null) tat = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+            while (true) {
+                long current = tat.get();
+                long next = Math.max(current, now) + emissionInterval;
+                long wait = next - now - burstTolerance;
+                if (wait > 0) return wait;
+                if (tat.compareAndSet(current, next)) return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package fr.fanto.premierstudiosapi.configs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// Règles de limitation par route (rate-limit.rules[n].*), la première règle qui correspond s'applique
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    public enum KeyType { USER, IP, USER_OR_IP }
+
+    private boolean enabled = true;
+    // Un compteur inutilisé depuis ce délai est plein : il est supprimé
+    private long idleEvictionSeconds = 600;
+    private List<Rule> rules = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Rule {
+        // Motif Ant, ex. /api/events/**
+        private String path;
+        // Méthode HTTP, toutes si absente
+        private String method;
+        // Rafale maximale
+        private int capacity;
+        // Jetons rendus par seconde
+        private double refillPerSecond;
+        private KeyType key = KeyType.USER_OR_IP;
+    }
+}
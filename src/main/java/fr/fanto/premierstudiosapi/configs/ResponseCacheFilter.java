@@ -0,0 +1,172 @@
+package fr.fanto.premierstudiosapi.configs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import fr.fanto.premierstudiosapi.models.ReadFormat;
+import fr.fanto.premierstudiosapi.services.CatalogVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Corps JSON déjà encodés (et gzippés) des listings publics et des recherches, indexés par paramètres normalisés
+// et version du catalogue : un hit ne touche ni la base ni Jackson. Toute création, modification ou suppression
+// commitée change la version (pas les inscriptions, voir CatalogVersion), les anciennes entrées ne sont plus jamais lues et sortent du cache par taille. La version étant propre à
+// l'instance, les entrées expirent aussi après ttl-seconds : une modification faite sur une autre instance est
+// servie au plus tard après ce délai.
+@Component
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private record CachedResponse(byte[] body, byte[] gzipped) {}
+
+    private static final String LISTING = "/api/events";
+    private static final String SEARCH = "/api/events/search";
+    // Valeurs par défaut du listing : /api/events et /api/events?page=0&size=10&sortBy=id partagent une entrée
+    private static final Map<String, String> LISTING_DEFAULTS = Map.of("page", "0", "size", "10", "sortBy", "id");
+
+    private final CatalogVersion catalogVersion;
+    private final Cache<String, CachedResponse> cache;
+    private final boolean enabled;
+    private final boolean gzip;
+    private final int maxBodyBytes;
+    private final int gzipMinBytes;
+
+    public ResponseCacheFilter(CatalogVersion catalogVersion, MeterRegistry registry,
+                               @Value("${events.response-cache.enabled:true}") boolean enabled,
+                               @Value("${events.response-cache.max-size:1000}") long maxSize,
+                               @Value("${events.response-cache.ttl-seconds:30}") long ttlSeconds,
+                               @Value("${events.response-cache.max-body-bytes:262144}") int maxBodyBytes,
+                               @Value("${events.response-cache.gzip:true}") boolean gzip,
+                               @Value("${events.response-cache.gzip-min-bytes:1024}") int gzipMinBytes) {
+        this.catalogVersion = catalogVersion;
+        this.enabled = enabled;
+        this.gzip = gzip;
+        this.maxBodyBytes = maxBodyBytes;
+        this.gzipMinBytes = gzipMinBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "events.responses");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !"GET".equals(request.getMethod())) return true;
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(LISTING.equals(path) || SEARCH.equals(path)) || !acceptsJson(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // Version lue avant la requête : si elle change pendant le traitement, le corps n'est pas mis en cache
+        long version = catalogVersion.current();
+        String key = version + " " + normalize(request);
+
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            write(request, response, cached);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+
+        byte[] body = wrapper.getContentAsByteArray();
+        if (wrapper.getStatus() == HttpStatus.OK.value()
+                && isJson(wrapper.getContentType())
+                && body.length <= maxBodyBytes
+                && catalogVersion.current() == version) {
+            cache.put(key, new CachedResponse(body, gzip && body.length >= gzipMinBytes ? gzip(body) : null));
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response, CachedResponse cached) throws IOException {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (new ServletWebRequest(request, response).checkNotModified(catalogVersion.etag(ReadFormat.JSON), catalogVersion.lastModified())) {
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        byte[] body = cached.body();
+        if (cached.gzipped() != null && acceptsGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = cached.gzipped();
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static String normalize(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Map<String, String> params = new TreeMap<>();
+        if (LISTING.equals(path) && request.getParameter("after") == null) params.putAll(LISTING_DEFAULTS);
+        request.getParameterMap().forEach((name, values) -> {
+            // Toutes les valeurs : Spring lie ?name=jazz&name=rock en "jazz,rock", comme ?name=jazz,rock
+            String value = String.join(",", values).trim();
+            // La recherche ignore la casse : "Jazz" et "jazz" partagent une entrée
+            params.put(name, SEARCH.equals(path) ? value.toLowerCase(Locale.ROOT) : value);
+        });
+        StringBuilder key = new StringBuilder(path);
+        params.forEach((name, value) -> key.append('&').append(name).append('=').append(value));
+        return key.toString();
+    }
+
+    // Seul le JSON est mis en cache : Accept absent ou compatible JSON, sans demande de CBOR ni de Smile
+    private static boolean acceptsJson(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) return true;
+        boolean json = false;
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if (type.getQualityValue() == 0) continue;
+                if (type.getSubtype().contains("cbor") || type.getSubtype().contains("smile")) return false;
+                json |= type.includes(MediaType.APPLICATION_JSON);
+            }
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        return json;
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String encoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return encoding != null && encoding.toLowerCase(Locale.ROOT).contains("gzip");
+    }
+
+    private static boolean isJson(String contentType) {
+        return contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
@@ -1,5 +1,6 @@
 package fr.fanto.premierstudiosapi.configs;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -9,26 +10,31 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import fr.fanto.premierstudiosapi.services.UserService;
+import fr.fanto.premierstudiosapi.utils.CostAwarePasswordEncoder;
+import fr.fanto.premierstudiosapi.utils.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 public class SecurityConfig {
 
     private final UserService userService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
-    public SecurityConfig(@Lazy UserService userService, JwtAuthenticationFilter filter) {
+    public SecurityConfig(@Lazy UserService userService, JwtAuthenticationFilter filter, RateLimitFilter rateLimitFilter) {
         this.userService = userService;
         this.jwtAuthenticationFilter = filter;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   @Value("${management.server.port:-1}") int managementPort) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -42,11 +48,20 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/login").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/events").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/events/search").permitAll() 
+                .requestMatchers(HttpMethod.GET, "/api/events/range", "/api/events/upcoming", "/api/events/by-creator").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/events/facets", "/api/events/facets/attendees").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/events/stream").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/events/{id}").permitAll() 
                 .requestMatchers("/error").permitAll()
+                // Sondes et métriques ouvertes uniquement sur le port de management, jamais sur le port public de l'API
+                .requestMatchers(request -> request.getLocalPort() == managementPort
+                        && ("/actuator/health".equals(request.getRequestURI())
+                            || "/actuator/prometheus".equals(request.getRequestURI()))).permitAll()
                 .anyRequest().hasAuthority("ROLE_USER")
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // Après le JWT : la limite s'applique à l'email authentifié quand il est connu
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -59,15 +74,17 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength, MeterRegistry registry) {
+        return new TimedPasswordEncoder(new CostAwarePasswordEncoder(strength), registry);
     }
 
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // Ré-encode au coût cible les hash d'un autre coût après un login réussi
+        authProvider.setUserDetailsPasswordService(userService);
         return authProvider;
     }
 }
@@ -7,6 +7,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,4 +26,12 @@ public class AuthController {
         ApiResponse<String> response = userService.dologin(login);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/logout")
+    @Operation(summary = "User logout", 
+    description = "Revoke the JWT token used for this request until it expires.")
+    public ResponseEntity<ApiResponse<String>> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization){
+        ApiResponse<String> response = userService.doLogout(authorization);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+}
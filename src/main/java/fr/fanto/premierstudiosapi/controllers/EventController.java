@@ -1,24 +1,53 @@
 package fr.fanto.premierstudiosapi.controllers;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
-import fr.fanto.premierstudiosapi.entities.Event;
 import fr.fanto.premierstudiosapi.entities.User;
+import fr.fanto.premierstudiosapi.exceptions.BadRequestException;
 import fr.fanto.premierstudiosapi.models.ApiResponse;
 import fr.fanto.premierstudiosapi.models.Attendees;
+import fr.fanto.premierstudiosapi.models.CursorPage;
+import fr.fanto.premierstudiosapi.models.EventFacets;
+import fr.fanto.premierstudiosapi.models.EventSort;
+import fr.fanto.premierstudiosapi.models.EventVersion;
+import fr.fanto.premierstudiosapi.models.EventView;
+import fr.fanto.premierstudiosapi.models.ImportReport;
+import fr.fanto.premierstudiosapi.models.ReadFormat;
+import fr.fanto.premierstudiosapi.services.CatalogVersion;
+import fr.fanto.premierstudiosapi.services.EventChangeFeed;
+import fr.fanto.premierstudiosapi.services.EventFacetCounters;
+import fr.fanto.premierstudiosapi.services.EventImportService;
 import fr.fanto.premierstudiosapi.services.EventService;
+import fr.fanto.premierstudiosapi.services.RegistrationQueue;
+import fr.fanto.premierstudiosapi.utils.CsvUtil;
 import fr.fanto.premierstudiosapi.validator.EventValidator;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -33,7 +62,20 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @AllArgsConstructor
 public class EventController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_ATTENDEE_PAGE_SIZE = 1000;
+    private static final int MAX_ATTENDEE_TOTAL_IDS = 1000;
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    private static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
     private final EventService eventService;
+    private final EventImportService eventImportService;
+    private final CatalogVersion catalogVersion;
+    private final RegistrationQueue registrationQueue;
+    private final EventFacetCounters facetCounters;
+    private final EventChangeFeed changeFeed;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @SecurityRequirement(name = "BearerAuth")
@@ -47,6 +89,16 @@ public class EventController {
         return ResponseEntity.ok(new ApiResponse<>(true, 200, "Event created successfully", null));
     }
 
+    @PostMapping(value = "/import", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson" })
+    @SecurityRequirement(name = "BearerAuth")
+    @Operation(summary = "Bulk import events",
+    description = "Imports a JSON array or NDJSON stream of events in batches, invalid rows are reported without aborting the import")
+    public ResponseEntity<ApiResponse<ImportReport>> importEvents(HttpServletRequest request) throws IOException {
+        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        ImportReport report = eventImportService.importEvents(request.getInputStream(), user);
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Events imported", report));
+    }
+
     @PutMapping("/{id}")
     @SecurityRequirement(name = "BearerAuth")
     @Operation(summary = "Update an event", description = "Updates an event by its ID")
@@ -67,22 +119,132 @@ public class EventController {
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
-    @GetMapping
-    @Operation(summary = "Get all events", description = "Retrieves a paginated list of events")
-    public ResponseEntity<ApiResponse<Page<Event>>> getEvents(
+    // JSON par défaut, CBOR ou Smile sur demande (Accept) pour les consommateurs en masse
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE })
+    @Operation(summary = "Get all events", description = "Retrieves a paginated list of events as JSON, CBOR or Smile")
+    public ResponseEntity<ApiResponse<Page<EventView>>> getEvents(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "id") String sortBy) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
-        Page<Event> events = eventService.getAllEvents(pageable);
-        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Events fetched successfully", events));
+            @RequestParam(defaultValue = "id") String sortBy,
+            WebRequest request) {
+        if (request.checkNotModified(catalogVersion.etag(format(request)), catalogVersion.lastModified()))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+        Pageable pageable = PageRequest.of(page, size, EventSort.from(sortBy).getSort());
+        Page<EventView> events = eventService.getAllEvents(pageable);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(new ApiResponse<>(true, 200, "Events fetched successfully", events));
+    }
+
+    @GetMapping(params = "after",
+            produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE })
+    @Operation(summary = "Get events with a cursor",
+    description = "Walks the catalog with keyset pagination, pass an empty 'after' for the first page then the returned nextCursor")
+    public ResponseEntity<ApiResponse<CursorPage<EventView>>> getEventsByCursor(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            WebRequest request) {
+        if (request.checkNotModified(catalogVersion.etag(format(request)), catalogVersion.lastModified()))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        CursorPage<EventView> events = eventService.getEventsAfter(EventSort.from(sortBy), after, pageSize);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(new ApiResponse<>(true, 200, "Events fetched successfully", events));
+    }
+
+    @GetMapping(value = "/range",
+            produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE })
+    @Operation(summary = "Get events between two dates",
+    description = "Events dated between 'from' and 'to' (inclusive, ISO date-time) ordered by date and time, with cursor pagination")
+    public ResponseEntity<ApiResponse<CursorPage<EventView>>> getEventsInRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "") String after,
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
+        return calendarPage(from, to, null, after, size, request);
+    }
+
+    @GetMapping(value = "/upcoming",
+            produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE })
+    @Operation(summary = "Get upcoming events",
+    description = "Events from now on ordered by date and time, with cursor pagination")
+    public ResponseEntity<ApiResponse<CursorPage<EventView>>> getUpcomingEvents(
+            @RequestParam(defaultValue = "") String after,
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
+        return calendarPage(LocalDateTime.now(), null, null, after, size, request);
+    }
+
+    @GetMapping(value = "/by-creator",
+            produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE })
+    @Operation(summary = "Get events of a creator",
+    description = "Events created by the given user from 'from' (default now) to 'to' (default none), ordered by date and time")
+    public ResponseEntity<ApiResponse<CursorPage<EventView>>> getEventsByCreator(
+            @RequestParam String email,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "") String after,
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
+        return calendarPage(from == null ? LocalDateTime.now() : from, to, email, after, size, request);
     }
 
-    @GetMapping("/{id}")
+    private ResponseEntity<ApiResponse<CursorPage<EventView>>> calendarPage(
+            LocalDateTime from, LocalDateTime to, String creator, String after, int size, WebRequest request) {
+        if (request.checkNotModified(catalogVersion.etag(format(request)), catalogVersion.lastModified()))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        CursorPage<EventView> events = eventService.getEventsBetween(from, to, creator, after, pageSize);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(new ApiResponse<>(true, 200, "Events fetched successfully", events));
+    }
+
+    // Représentation que la négociation va choisir, pour des ETag distincts en JSON, CBOR et Smile
+    private static ReadFormat format(WebRequest request) {
+        return ReadFormat.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    @GetMapping("/facets")
+    @Operation(summary = "Get catalog statistics",
+    description = "Event counts per location and per date and total attendees, served from incrementally maintained counters")
+    public ResponseEntity<ApiResponse<EventFacets>> getFacets() {
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Facets fetched successfully", facetCounters.facets()));
+    }
+
+    @GetMapping("/facets/attendees")
+    @Operation(summary = "Get attendee totals per event",
+    description = "Number of attendees for each requested event id, unknown ids are omitted")
+    public ResponseEntity<ApiResponse<Map<Long, Integer>>> getAttendeeTotals(@RequestParam List<Long> ids) {
+        if (ids.size() > MAX_ATTENDEE_TOTAL_IDS)
+            throw new BadRequestException("At most " + MAX_ATTENDEE_TOTAL_IDS + " ids per request");
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Attendee totals fetched successfully",
+                facetCounters.attendees(ids)));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream catalog changes",
+    description = "Server-Sent Events for created, updated, deleted events and new registrations, resumable with Last-Event-ID")
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                    HttpServletRequest request) {
+        return changeFeed.subscribe(lastEventId, request.getRemoteAddr());
+    }
+
+    @GetMapping(value = "/{id}",
+            produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE })
     @Operation(summary = "Get event by ID")
-    public ResponseEntity<ApiResponse<Event>> getEvent(@PathVariable Long id) {
-        ApiResponse<Event> response = eventService.getEventResponse(id);
-        return ResponseEntity.status(response.getStatusCode()).body(response);
+    public ResponseEntity<ApiResponse<EventView>> getEvent(@PathVariable Long id, WebRequest request) {
+        ApiResponse<EventView> response = null;
+        EventVersion version;
+        // Requête conditionnelle : la décision 304 ne lit que la version, le corps n'est chargé que si besoin
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            version = eventService.getEventVersion(id);
+        } else {
+            response = eventService.getEventResponse(id);
+            version = EventVersion.of(response.getData());
+        }
+        if (request.checkNotModified(version.etag(format(request)), version.lastModified()))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+        if (response == null)
+            response = eventService.getEventResponse(id);
+        return ResponseEntity.status(response.getStatusCode()).varyBy(HttpHeaders.ACCEPT).body(response);
     }
 
     @GetMapping("/{id}/attendees")
@@ -94,9 +256,66 @@ public class EventController {
         return ResponseEntity.status(reponse.getStatusCode()).body(reponse);
     }
 
-    @GetMapping("/search")
-    @Operation(summary = "Search for events", description = "Search for events by name, date, or location")
-    public ResponseEntity<ApiResponse<Iterable<Event>>> getEventBySearch(
+    @GetMapping(value = "/{id}/attendees", params = "after")
+    @SecurityRequirement(name = "BearerAuth")
+    @Operation(summary = "Get attendees of an event with a cursor",
+    description = "Pages through attendees ordered by email, pass an empty 'after' for the first page then the returned nextCursor")
+    public ResponseEntity<ApiResponse<CursorPage<Attendees>>> getAttendeesByCursor(
+            @PathVariable Long id,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "100") int size) {
+        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        int pageSize = Math.max(1, Math.min(size, MAX_ATTENDEE_PAGE_SIZE));
+        CursorPage<Attendees> attendees = eventService.getAttendeesAfter(id, user, after, pageSize);
+        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Attendees fetched successfully", attendees));
+    }
+
+    @GetMapping("/{id}/attendees/export")
+    @SecurityRequirement(name = "BearerAuth")
+    @Operation(summary = "Export attendees of an event",
+    description = "Streams every attendee as NDJSON (default) or CSV with constant memory use")
+    public ResponseEntity<StreamingResponseBody> exportAttendees(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        boolean csv = switch (format.toLowerCase()) {
+            case "csv" -> true;
+            case "ndjson" -> false;
+            default -> throw new BadRequestException("Unsupported format: " + format + ", expected ndjson or csv");
+        };
+        // Le contrôle d'accès est fait avant d'écrire le moindre octet
+        eventService.checkOwner(id, user);
+
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            if (csv) writer.write("email,username\n");
+            eventService.streamAttendees(id, attendee -> {
+                try {
+                    if (csv) {
+                        writer.write(CsvUtil.escape(attendee.getEmail()) + "," + CsvUtil.escape(attendee.getUsername()) + "\n");
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(attendee));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : APPLICATION_NDJSON);
+        if (csv) {
+            response.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"event-" + id + "-attendees.csv\"");
+        }
+        return response.body(body);
+    }
+
+    @GetMapping(value = "/search",
+            produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE })
+    @Operation(summary = "Search for events", description = "Search for events by name, date, or location, as JSON, CBOR or Smile")
+    public ResponseEntity<ApiResponse<Iterable<EventView>>> getEventBySearch(
             @RequestParam(required = false) 
             @Size(min = 3, message = "Name must be at least 3 characters") 
             String name,
@@ -104,13 +323,16 @@ public class EventController {
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) 
             @FutureOrPresent(message = "Date must be in the present or future")
             LocalDate date,
-            @RequestParam(required = false) String location) {
-        
-        List<Event> events = eventService.searchEvents(name, date, location);
+            @RequestParam(required = false) String location,
+            WebRequest request) {
+        if (request.checkNotModified(catalogVersion.etag(format(request)), catalogVersion.lastModified()))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+
+        List<EventView> events = eventService.searchEvents(name, date, location);
         if (events.isEmpty()) {
-            return ResponseEntity.ok(new ApiResponse<>(true, 200, "No events found matching the criteria", events));
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(new ApiResponse<>(true, 200, "No events found matching the criteria", events));
         }
-        return ResponseEntity.ok(new ApiResponse<>(true, 200, "Events fetched successfully", events));
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(new ApiResponse<>(true, 200, "Events fetched successfully", events));
     }
 
     @PostMapping("/{id}/register")
@@ -118,7 +340,10 @@ public class EventController {
     @Operation(summary = "Register authenticated user for an event", description = "Registers a user for a specific event")
     public ResponseEntity<ApiResponse<String>> register(@PathVariable Long id) {
         User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal(); 
-        ApiResponse<String> response = eventService.register(id, user);
+        // En write-behind l'inscription est écrite par lots ; 202 si elle est acceptée sans attendre l'écriture
+        ApiResponse<String> response = registrationQueue.isEnabled()
+                ? registrationQueue.register(id, user)
+                : eventService.register(id, user);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 }
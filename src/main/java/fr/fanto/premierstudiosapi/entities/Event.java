@@ -7,6 +7,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
@@ -14,6 +15,11 @@ import java.util.List;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_event_date_time_id", columnList = "date, time, id"),
+    @Index(name = "idx_event_name_id", columnList = "name, id"),
+    @Index(name = "idx_event_creator_date_time_id", columnList = "created_by_email, date, time, id")
+})
 @Getter
 @Setter
 @AllArgsConstructor
@@ -37,9 +43,34 @@ public class Event {
     @Column(length = 500)
     private String description;
 
+    private Integer capacity;
+
+    // Compteur dénormalisé de event_users, maintenu par des UPDATE atomiques. Exclu des UPDATE de l'entité :
+    // un updateEvent ne doit pas réécrire la valeur lue au chargement par-dessus les inscriptions concurrentes.
+    @Column(nullable = false, updatable = false)
+    private int attendeeCount;
+
     @ManyToMany
+    @JoinTable(
+        name = "event_users",
+        joinColumns = @JoinColumn(name = "event_id"),
+        inverseJoinColumns = @JoinColumn(name = "users_email"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_event_users", columnNames = {"event_id", "users_email"})
+    )
     private List<User> users;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User createdBy;
+
+    // Verrou optimiste des modifications, incrémenté par Hibernate à chaque update ; les inscriptions ne la changent pas
+    @Version
+    private long version;
+
+    private Instant updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package fr.fanto.premierstudiosapi.exceptions;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
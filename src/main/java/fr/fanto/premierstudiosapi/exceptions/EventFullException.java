@@ -0,0 +1,7 @@
+package fr.fanto.premierstudiosapi.exceptions;
+
+public class EventFullException extends RuntimeException {
+    public EventFullException(String message) {
+        super(message);
+    }
+}
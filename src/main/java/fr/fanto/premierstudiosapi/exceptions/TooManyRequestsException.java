@@ -0,0 +1,7 @@
+package fr.fanto.premierstudiosapi.exceptions;
+
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,34 @@
+package fr.fanto.premierstudiosapi.models;
+
+import java.time.LocalDate;
+
+// Publié par EventService à chaque mutation du catalogue, reçu après commit par les caches et index.
+// name/location/date : nouvelles valeurs pour CREATED et UPDATED ; attendeeDelta : inscrits ajoutés pour REGISTERED,
+// attendeeCount : nombre d'inscrits de l'événement juste après ce commit. Le compteur ne fait que croître : il sert de
+// version par événement, un consommateur peut ignorer une inscription déjà comptée ou reçue dans le désordre.
+public record EventChange(Type type, Long eventId, String name, String location, LocalDate date,
+                          int attendeeDelta, int attendeeCount) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        REGISTERED
+    }
+
+    public EventChange(Type type, Long eventId) {
+        this(type, eventId, null, null, null, 0, 0);
+    }
+
+    public static EventChange created(Long eventId, String name, String location, LocalDate date) {
+        return new EventChange(Type.CREATED, eventId, name, location, date, 0, 0);
+    }
+
+    public static EventChange updated(Long eventId, String name, String location, LocalDate date) {
+        return new EventChange(Type.UPDATED, eventId, name, location, date, 0, 0);
+    }
+
+    public static EventChange registered(Long eventId, int added, int attendeeCount) {
+        return new EventChange(Type.REGISTERED, eventId, null, null, null, added, attendeeCount);
+    }
+}
@@ -0,0 +1,6 @@
+package fr.fanto.premierstudiosapi.models;
+
+import java.time.LocalDate;
+
+public record EventFacetRow(Long id, String location, LocalDate date, int attendeeCount) {
+}
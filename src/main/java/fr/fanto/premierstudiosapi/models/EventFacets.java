@@ -0,0 +1,20 @@
+package fr.fanto.premierstudiosapi.models;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record EventFacets(
+        @Schema(description = "Number of events in the catalog")
+        long totalEvents,
+        @Schema(description = "Number of registrations across all events")
+        long totalAttendees,
+        @Schema(description = "Number of events per location")
+        Map<String, Long> byLocation,
+        @Schema(description = "Number of events per date, undated events excluded")
+        Map<LocalDate, Long> byDate,
+        @Schema(description = "Last reconciliation against the database")
+        Instant reconciledAt) {
+}
@@ -0,0 +1,6 @@
+package fr.fanto.premierstudiosapi.models;
+
+import java.time.LocalDate;
+
+public record EventSearchRow(Long id, String name, String location, LocalDate date) {
+}
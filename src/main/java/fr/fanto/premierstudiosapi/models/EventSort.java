@@ -0,0 +1,27 @@
+package fr.fanto.premierstudiosapi.models;
+
+import org.springframework.data.domain.Sort;
+
+import fr.fanto.premierstudiosapi.exceptions.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Clés de tri autorisées, chacune couverte par un index composite sur Event
+@Getter
+@AllArgsConstructor
+public enum EventSort {
+
+    ID("id", Sort.by("id")),
+    DATE("date", Sort.by("date", "time", "id")),
+    NAME("name", Sort.by("name", "id"));
+
+    private final String key;
+    private final Sort sort;
+
+    public static EventSort from(String key) {
+        for (EventSort sort : values()) {
+            if (sort.key.equalsIgnoreCase(key)) return sort;
+        }
+        throw new BadRequestException("Unsupported sort key: " + key + ", expected one of id, date, name");
+    }
+}
@@ -0,0 +1,19 @@
+package fr.fanto.premierstudiosapi.models;
+
+import java.time.Instant;
+
+// Validateur d'un événement : version des modifications (@Version) et compteur d'inscrits, qui évolue sans elle
+public record EventVersion(Long id, long version, int attendeeCount, Instant updatedAt) {
+
+    public static EventVersion of(EventView event) {
+        return new EventVersion(event.id(), event.version(), event.attendeeCount(), event.updatedAt());
+    }
+
+    public String etag(ReadFormat format) {
+        return format.tag(id + "-" + version + "-" + attendeeCount);
+    }
+
+    public long lastModified() {
+        return updatedAt == null ? -1 : updatedAt.toEpochMilli();
+    }
+}
@@ -0,0 +1,33 @@
+package fr.fanto.premierstudiosapi.models;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+// Modèle de lecture des endpoints publics : colonnes de l'événement uniquement, jamais le graphe d'entités.
+// Ordre des champs figé pour les formats binaires (CBOR, Smile) : un nouveau champ s'ajoute toujours à la fin.
+@JsonPropertyOrder({ "id", "name", "date", "time", "location", "description", "capacity", "createdBy",
+        "attendeeCount", "version", "updatedAt" })
+public record EventView(
+        Long id,
+        String name,
+        LocalDate date,
+        @JsonFormat(pattern = "HH:mm")
+        @Schema(type = "string", example = "14:30")
+        LocalTime time,
+        String location,
+        String description,
+        Integer capacity,
+        @Schema(description = "Display name of the event creator")
+        String createdBy,
+        @Schema(description = "Number of registered attendees")
+        int attendeeCount,
+        @Schema(description = "Incremented on every edit of the event, registrations excluded")
+        long version,
+        Instant updatedAt) {
+}
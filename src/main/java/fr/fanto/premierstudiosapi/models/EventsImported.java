@@ -0,0 +1,12 @@
+package fr.fanto.premierstudiosapi.models;
+
+import java.util.List;
+
+// Publié une fois par lot d'import commité, à la place d'un EventChange.created par ligne :
+// une seule entrée dans le flux SSE et une seule nouvelle version du catalogue par lot
+public record EventsImported(List<EventChange> created) {
+
+    public EventsImported {
+        created = List.copyOf(created);
+    }
+}
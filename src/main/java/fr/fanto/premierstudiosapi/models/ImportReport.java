@@ -0,0 +1,51 @@
+package fr.fanto.premierstudiosapi.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+
+@Getter
+public class ImportReport {
+
+    public record RowError(int row, Map<String, String> errors) {}
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Schema(description = "Number of rows read from the upload", example = "10000")
+    private int received;
+
+    @Schema(description = "Number of events inserted", example = "9998")
+    private int imported;
+
+    @Schema(description = "Number of rows rejected", example = "2")
+    private int failed;
+
+    @Schema(description = "True when the upload could not be read to the end")
+    private boolean truncated;
+
+    @Schema(description = "Per-row errors, 1-based row numbers, capped at 1000 entries")
+    private final List<RowError> errors = new ArrayList<>();
+
+    public void received() {
+        received++;
+    }
+
+    public void imported(int count) {
+        imported += count;
+    }
+
+    public void failed(int row, Map<String, String> rowErrors) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, rowErrors));
+        }
+    }
+
+    public void truncated(int row, String message) {
+        truncated = true;
+        failed(row, Map.of("body", message));
+    }
+}
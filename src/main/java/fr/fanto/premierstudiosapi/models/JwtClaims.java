@@ -0,0 +1,24 @@
+package fr.fanto.premierstudiosapi.models;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+// id = claim jti, null pour les tokens émis avant son ajout
+public record JwtClaims(String id, String email, List<SimpleGrantedAuthority> authorities, Instant expiresAt) {
+
+    public JwtClaims {
+        authorities = List.copyOf(authorities);
+    }
+
+    public List<String> roles() {
+        return authorities.stream()
+                .map(SimpleGrantedAuthority::getAuthority)
+                .toList();
+    }
+
+    public boolean isExpired() {
+        return expiresAt.isBefore(Instant.now());
+    }
+}
@@ -0,0 +1,45 @@
+package fr.fanto.premierstudiosapi.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+// Représentations des lectures d'événements, dans l'ordre de préférence de la négociation de contenu.
+// Chacune a ses propres ETag : le JSON, le CBOR et le Smile d'une même version ne partagent pas un validateur fort.
+public enum ReadFormat {
+
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(MediaType.parseMediaType("application/x-jackson-smile"));
+
+    private final MediaType mediaType;
+
+    ReadFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    // Même règle que la négociation de Spring MVC : premier type accepté (qualité puis spécificité) compatible
+    public static ReadFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) return JSON;
+        try {
+            List<MediaType> accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+            MimeTypeUtils.sortBySpecificity(accepted);
+            for (MediaType type : accepted) {
+                if (type.getQualityValue() == 0) continue;
+                for (ReadFormat format : values()) {
+                    if (type.isCompatibleWith(format.mediaType)) return format;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // En-tête invalide : la négociation répondra 406 ou JSON, le validateur n'a pas d'importance
+        }
+        return JSON;
+    }
+
+    public String tag(String etag) {
+        return etag + "-" + name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,21 +1,153 @@
 package fr.fanto.premierstudiosapi.repositories;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import fr.fanto.premierstudiosapi.entities.Event;
+import jakarta.persistence.QueryHint;
+import fr.fanto.premierstudiosapi.models.Attendees;
+import fr.fanto.premierstudiosapi.models.EventFacetRow;
+import fr.fanto.premierstudiosapi.models.EventSearchRow;
+import fr.fanto.premierstudiosapi.models.EventVersion;
+import fr.fanto.premierstudiosapi.models.EventView;
 
 public interface EventRepo extends JpaRepository<Event, Long> {
 
-    @Query("SELECT e FROM Event e WHERE " +
+    // Une seule requête par appel : colonnes de l'événement, nom du créateur et compteur dénormalisé
+    String EVENT_VIEW = "SELECT new fr.fanto.premierstudiosapi.models.EventView(" +
+                        "e.id, e.name, e.date, e.time, e.location, e.description, e.capacity, c.username, e.attendeeCount, " +
+                        "e.version, e.updatedAt) " +
+                        "FROM Event e LEFT JOIN e.createdBy c ";
+
+    @Query(value = EVENT_VIEW, countQuery = "SELECT COUNT(e) FROM Event e")
+    Page<EventView> findAllViews(Pageable pageable);
+
+    @Query(EVENT_VIEW + "WHERE e.id = :id")
+    Optional<EventView> findViewById(@Param("id") Long id);
+
+    @Query("SELECT new fr.fanto.premierstudiosapi.models.EventVersion(e.id, e.version, e.attendeeCount, e.updatedAt) FROM Event e WHERE e.id = :id")
+    Optional<EventVersion> findVersionById(@Param("id") Long id);
+
+    @Query(EVENT_VIEW + "WHERE " +
        "(:name IS NULL OR LOWER(e.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
        "(:date IS NULL OR e.date = :date) AND " +
-       "(:location IS NULL OR LOWER(e.location) LIKE LOWER(CONCAT('%', :location, '%')))")
-    List<Event> searchEvents(@Param("name") String name, 
-                             @Param("date") LocalDate date, 
-                             @Param("location") String location);
-}
\ No newline at end of file
+       "(:location IS NULL OR LOWER(e.location) LIKE LOWER(CONCAT('%', :location, '%'))) " +
+       "ORDER BY e.id")
+    List<EventView> searchEvents(@Param("name") String name, 
+                                 @Param("date") LocalDate date, 
+                                 @Param("location") String location,
+                                 Limit limit);
+
+    String ATTENDEES = "SELECT new fr.fanto.premierstudiosapi.models.Attendees(u.email, u.username) " +
+                       "FROM Event e JOIN e.users u WHERE e.id = :id ";
+
+    @Query("SELECT c.email FROM Event e JOIN e.createdBy c WHERE e.id = :id")
+    Optional<String> findCreatorEmail(@Param("id") Long id);
+
+    @Query(ATTENDEES + "ORDER BY u.email")
+    List<Attendees> findAttendees(@Param("id") Long id);
+
+    @Query(ATTENDEES + "AND u.email > :after ORDER BY u.email")
+    List<Attendees> findAttendeesAfter(@Param("id") Long id, @Param("after") String after, Pageable limit);
+
+    // Lecture en flux par lots de 500 lignes (useCursorFetch côté MySQL), rien n'est gardé dans le contexte de persistance
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(ATTENDEES + "ORDER BY u.email")
+    Stream<Attendees> streamAttendees(@Param("id") Long id);
+
+    @Query("SELECT new fr.fanto.premierstudiosapi.models.EventSearchRow(e.id, e.name, e.location, e.date) FROM Event e")
+    Stream<EventSearchRow> streamSearchRows();
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new fr.fanto.premierstudiosapi.models.EventFacetRow(e.id, e.location, e.date, e.attendeeCount) FROM Event e")
+    Stream<EventFacetRow> streamFacetRows();
+
+    @Query(EVENT_VIEW + "WHERE e.id IN :ids ORDER BY e.id")
+    List<EventView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Pagination keyset : le Pageable ne porte que la limite, jamais d'offset ni de COUNT
+    @Query(EVENT_VIEW + "WHERE e.id > :id ORDER BY e.id")
+    List<EventView> findPageAfterId(@Param("id") Long id, Pageable limit);
+
+    @Query(EVENT_VIEW + "ORDER BY e.name, e.id")
+    List<EventView> findFirstPageByName(Pageable limit);
+
+    @Query(EVENT_VIEW + "WHERE e.name > :name OR (e.name = :name AND e.id > :id) ORDER BY e.name, e.id")
+    List<EventView> findPageAfterName(@Param("name") String name, @Param("id") Long id, Pageable limit);
+
+    // Les dates nulles sont triées en premier, comme le fait MySQL en ordre croissant
+    @Query(EVENT_VIEW + "ORDER BY e.date, e.time, e.id")
+    List<EventView> findFirstPageByDate(Pageable limit);
+
+    @Query(EVENT_VIEW + "WHERE e.date IS NOT NULL OR " +
+           "(e.date IS NULL AND (e.time > :time OR (e.time = :time AND e.id > :id))) " +
+           "ORDER BY e.date, e.time, e.id")
+    List<EventView> findPageAfterUndated(@Param("time") LocalTime time, @Param("id") Long id, Pageable limit);
+
+    @Query(EVENT_VIEW + "WHERE e.date > :date OR " +
+           "(e.date = :date AND (e.time > :time OR (e.time = :time AND e.id > :id))) " +
+           "ORDER BY e.date, e.time, e.id")
+    List<EventView> findPageAfterDate(@Param("date") LocalDate date, @Param("time") LocalTime time,
+                                      @Param("id") Long id, Pageable limit);
+
+    // Fenêtre [position, (toDate, toTime)] triée par date, heure, id ; la position est le curseur, ou le début
+    // de la fenêtre avec id = 0. Servie par idx_event_date_time_id.
+    @Query(EVENT_VIEW + "WHERE (e.date > :date OR " +
+           "(e.date = :date AND (e.time > :time OR (e.time = :time AND e.id > :id)))) " +
+           "AND (e.date < :toDate OR (e.date = :toDate AND e.time <= :toTime)) " +
+           "ORDER BY e.date, e.time, e.id")
+    List<EventView> findRangeAfter(@Param("date") LocalDate date, @Param("time") LocalTime time, @Param("id") Long id,
+                                   @Param("toDate") LocalDate toDate, @Param("toTime") LocalTime toTime,
+                                   Pageable limit);
+
+    // Même fenêtre limitée à un créateur, servie par idx_event_creator_date_time_id
+    @Query(EVENT_VIEW + "WHERE e.createdBy.email = :email AND (e.date > :date OR " +
+           "(e.date = :date AND (e.time > :time OR (e.time = :time AND e.id > :id)))) " +
+           "AND (e.date < :toDate OR (e.date = :toDate AND e.time <= :toTime)) " +
+           "ORDER BY e.date, e.time, e.id")
+    List<EventView> findCreatorRangeAfter(@Param("email") String email,
+                                          @Param("date") LocalDate date, @Param("time") LocalTime time,
+                                          @Param("id") Long id,
+                                          @Param("toDate") LocalDate toDate, @Param("toTime") LocalTime toTime,
+                                          Pageable limit);
+
+    boolean existsByIdAndUsersEmail(Long id, String email);
+
+    // Lu juste après incrementAttendeeCount, sous le verrou de ligne : la valeur est celle de ce commit
+    @Query("SELECT e.attendeeCount FROM Event e WHERE e.id = :id")
+    int findAttendeeCount(@Param("id") Long id);
+
+    // 0 si l'utilisateur est déjà inscrit (contrainte uk_event_users) ou si l'événement n'existe pas.
+    // Toujours appelé après incrementAttendeeCount, qui a déjà verrouillé la ligne de l'événement.
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO event_users (event_id, users_email) VALUES (:eventId, :email)", nativeQuery = true)
+    int insertAttendee(@Param("eventId") Long eventId, @Param("email") String email);
+
+    // 0 si l'événement est complet : la condition est réévaluée sous le verrou de ligne.
+    // Ne touche pas @Version : une inscription ne doit pas faire échouer une modification concurrente de l'événement.
+    @Modifying
+    @Query("UPDATE Event e SET e.attendeeCount = e.attendeeCount + 1, e.updatedAt = :now " +
+           "WHERE e.id = :id AND (e.capacity IS NULL OR e.attendeeCount < e.capacity)")
+    int incrementAttendeeCount(@Param("id") Long id, @Param("now") Instant now);
+}
@@ -1,9 +1,34 @@
 package fr.fanto.premierstudiosapi.repositories;
 
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import fr.fanto.premierstudiosapi.entities.User;
+import jakarta.persistence.QueryHint;
 
 public interface UserRepo extends JpaRepository<User, String> {
-    
+
+    // Un seul aller-retour : un doublon est rejeté par la clé primaire
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO user (email, username, password) VALUES (:email, :username, :password)", nativeQuery = true)
+    int insert(@Param("email") String email, @Param("username") String username, @Param("password") String password);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
+
+    @Query("SELECT u.email FROM User u")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<String> streamEmails();
 }
@@ -0,0 +1,61 @@
+package fr.fanto.premierstudiosapi.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import fr.fanto.premierstudiosapi.models.EventChange;
+import fr.fanto.premierstudiosapi.models.EventsImported;
+import fr.fanto.premierstudiosapi.models.ReadFormat;
+
+// Version globale du catalogue, incrémentée après chaque modification commitée. Elle est propre à l'instance :
+// derrière un répartiteur, une modification faite sur une autre instance n'est pas vue ici. Les validateurs
+// changent donc aussi à chaque période de max-age-seconds (alignée sur l'horloge), ce qui borne la durée
+// pendant laquelle une instance peut répondre 304 sur des données périmées.
+@Component
+public class CatalogVersion {
+
+    // Change à chaque démarrage pour ne jamais réutiliser un ETag émis avant un redémarrage
+    private final long bootId = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+    private final long maxAgeMillis;
+    private volatile long lastModified = bootId;
+
+    public CatalogVersion(@Value("${events.catalog-version.max-age-seconds:60}") long maxAgeSeconds) {
+        this.maxAgeMillis = Math.max(1, maxAgeSeconds) * 1000;
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    public String etag(ReadFormat format) {
+        return format.tag("c" + bootId + "-" + version.get() + "-" + period());
+    }
+
+    public long lastModified() {
+        return Math.max(lastModified, period() * maxAgeMillis);
+    }
+
+    private long period() {
+        return System.currentTimeMillis() / maxAgeMillis;
+    }
+
+    // Les inscriptions ne changent pas la version : sous une charge d'inscriptions, chaque écriture invaliderait sinon
+    // les listings en cache et leurs validateurs. Le nombre d'inscrits d'un listing peut donc retarder d'au plus
+    // max-age-seconds (et ttl-seconds du cache de réponses) ; GET /api/events/{id} le suit via son propre ETag.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChange(EventChange change) {
+        if (change.type() == EventChange.Type.REGISTERED) return;
+        lastModified = System.currentTimeMillis();
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventsImported(EventsImported imported) {
+        lastModified = System.currentTimeMillis();
+        version.incrementAndGet();
+    }
+}
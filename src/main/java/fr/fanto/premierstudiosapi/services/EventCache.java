@@ -0,0 +1,58 @@
+package fr.fanto.premierstudiosapi.services;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import fr.fanto.premierstudiosapi.models.EventChange;
+import fr.fanto.premierstudiosapi.models.EventView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Cache read-through des EventView par id, invalidé après commit de chaque modification de l'événement
+@Component
+public class EventCache {
+
+    private final Cache<Long, EventView> cache;
+
+    public EventCache(@Value("${events.cache.max-size:10000}") long maxSize,
+                      @Value("${events.cache.ttl-seconds:300}") long ttlSeconds,
+                      MeterRegistry registry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "events");
+    }
+
+    public EventView get(Long id, Function<Long, EventView> loader) {
+        return cache.get(id, loader);
+    }
+
+    public EventView getIfPresent(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public Cache<Long, EventView> nativeCache() {
+        return cache;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChange(EventChange change) {
+        if (change.type() != EventChange.Type.CREATED) {
+            cache.invalidate(change.eventId());
+        }
+    }
+}
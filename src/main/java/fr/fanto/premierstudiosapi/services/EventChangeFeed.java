@@ -0,0 +1,247 @@
+package fr.fanto.premierstudiosapi.services;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import fr.fanto.premierstudiosapi.exceptions.TooManyRequestsException;
+import fr.fanto.premierstudiosapi.models.EventChange;
+import fr.fanto.premierstudiosapi.models.EventsImported;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Flux SSE des modifications du catalogue. Chaque modification commitée reçoit un numéro de séquence, est gardée
+// dans un anneau des dernières buffer-size entrées (reprise par Last-Event-ID) puis déposée dans la file bornée de
+// chaque abonné, vidée par un thread virtuel qui lui est propre. Un abonné dont la file déborde est déconnecté :
+// il se reconnecte avec son Last-Event-ID et rattrape depuis l'anneau, sans jamais ralentir les autres.
+// Les id SSE sont préfixés par l'identifiant du démarrage : la séquence repart de zéro à chaque démarrage et d'une
+// instance à l'autre, un id d'une autre origine déclenche donc un reset au lieu d'une reprise au mauvais endroit.
+@Component
+public class EventChangeFeed implements DisposableBean {
+
+    // name : type SSE (created, updated, deleted, registered, imported), data : EventChange ou EventsImported
+    record Entry(long id, String name, Object data) {}
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final Entry[] ring;
+    private final ReentrantLock ringLock = new ReentrantLock();
+    private long lastId;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Connexions ouvertes par adresse client
+    private final ConcurrentHashMap<String, Integer> perClient = new ConcurrentHashMap<>();
+    private final int subscriberBuffer;
+    private final int maxSubscribers;
+    private final int maxPerClient;
+    private final long timeoutMillis;
+    private final long heartbeatMillis;
+    private final Counter slowConsumers;
+
+    public EventChangeFeed(@Value("${events.stream.buffer-size:4096}") int bufferSize,
+                           @Value("${events.stream.subscriber-buffer:256}") int subscriberBuffer,
+                           @Value("${events.stream.max-subscribers:5000}") int maxSubscribers,
+                           @Value("${events.stream.max-per-client:4}") int maxPerClient,
+                           @Value("${events.stream.timeout-ms:1800000}") long timeoutMillis,
+                           @Value("${events.stream.heartbeat-ms:15000}") long heartbeatMillis,
+                           MeterRegistry registry) {
+        this.ring = new Entry[bufferSize];
+        this.subscriberBuffer = subscriberBuffer;
+        this.maxSubscribers = maxSubscribers;
+        this.maxPerClient = maxPerClient;
+        this.timeoutMillis = timeoutMillis;
+        this.heartbeatMillis = heartbeatMillis;
+        Gauge.builder("events.stream.subscribers", subscribers, Set::size)
+                .description("Open change feed connections")
+                .register(registry);
+        this.slowConsumers = Counter.builder("events.stream.slow-consumers")
+                .description("Subscribers disconnected because their buffer was full")
+                .register(registry);
+    }
+
+    public SseEmitter subscribe(String lastEventId, String client) {
+        if (subscribers.size() >= maxSubscribers)
+            throw new TooManyRequestsException("Too many change feed subscribers, retry later");
+        if (!acquire(client))
+            throw new TooManyRequestsException("Too many change feed connections from this client, close one first");
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, client);
+        // Inscrit avant de lire l'anneau, sous son verrou : chaque modification est soit dans l'anneau au moment du
+        // rattrapage, soit déposée dans la file, jamais entre les deux
+        ringLock.lock();
+        try {
+            subscribers.add(subscriber);
+        } finally {
+            ringLock.unlock();
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        // Thread assigné avant son démarrage : un close() immédiat peut toujours l'interrompre
+        Thread thread = Thread.ofVirtual().name("event-stream").unstarted(() -> subscriber.run(lastEventId));
+        subscriber.thread = thread;
+        thread.start();
+        return emitter;
+    }
+
+    private boolean acquire(String client) {
+        boolean[] acquired = { false };
+        perClient.compute(client, (k, open) -> {
+            int current = open == null ? 0 : open;
+            if (current >= maxPerClient) return open;
+            acquired[0] = true;
+            return current + 1;
+        });
+        return acquired[0];
+    }
+
+    private void release(String client) {
+        perClient.computeIfPresent(client, (k, open) -> open == 1 ? null : open - 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChange(EventChange change) {
+        publish(change.type().name().toLowerCase(Locale.ROOT), change);
+    }
+
+    // Un lot d'import est une seule entrée : il n'évince pas l'anneau et ne sature pas les files des abonnés
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventsImported(EventsImported imported) {
+        publish("imported", imported);
+    }
+
+    private void publish(String name, Object data) {
+        List<Subscriber> slow = new ArrayList<>();
+        ringLock.lock();
+        try {
+            Entry entry = new Entry(++lastId, name, data);
+            ring[(int) (entry.id() % ring.length)] = entry;
+            // Distribution sous le verrou : chaque file reçoit les id dans l'ordre, sans trou (offer ne bloque pas)
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.queue.offer(entry)) slow.add(subscriber);
+            }
+        } finally {
+            ringLock.unlock();
+        }
+        for (Subscriber subscriber : slow) {
+            slowConsumers.increment();
+            subscriber.disconnect();
+        }
+    }
+
+    // Entrées postérieures à lastEventId encore dans l'anneau, null si la reprise est impossible
+    // (id illisible, d'un autre démarrage ou d'une autre instance, ou trop ancien)
+    List<Entry> since(String lastEventId) {
+        Long after = parse(lastEventId);
+        if (after == null) return null;
+        ringLock.lock();
+        try {
+            if (after < 0 || after > lastId || after < lastId - ring.length) return null;
+            List<Entry> entries = new ArrayList<>((int) (lastId - after));
+            for (long id = after + 1; id <= lastId; id++) {
+                entries.add(ring[(int) (id % ring.length)]);
+            }
+            return entries;
+        } finally {
+            ringLock.unlock();
+        }
+    }
+
+    String eventId(long id) {
+        return bootId + "-" + id;
+    }
+
+    private Long parse(String lastEventId) {
+        String prefix = bootId + "-";
+        String value = lastEventId.trim();
+        if (!value.startsWith(prefix)) return null;
+        try {
+            return Long.parseLong(value.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.forEach(Subscriber::disconnect);
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final String client;
+        private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(subscriberBuffer);
+        private volatile boolean open = true;
+        private volatile Thread thread;
+        private long lastSent;
+
+        Subscriber(SseEmitter emitter, String client) {
+            this.emitter = emitter;
+            this.client = client;
+        }
+
+        void run(String lastEventId) {
+            try {
+                if (lastEventId != null && !lastEventId.isBlank()) {
+                    List<Entry> missed = since(lastEventId);
+                    if (missed == null) {
+                        // Historique perdu : le client doit recharger le catalogue avant de suivre le flux
+                        emitter.send(SseEmitter.event().name("reset").data("{}", MediaType.APPLICATION_JSON));
+                    } else {
+                        for (Entry entry : missed) send(entry);
+                    }
+                }
+                while (open) {
+                    Entry entry = queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                    if (entry == null) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        send(entry);
+                    }
+                }
+            } catch (IOException | IllegalStateException | InterruptedException e) {
+                // Client parti ou déconnecté comme consommateur lent
+            } finally {
+                close();
+            }
+        }
+
+        private void send(Entry entry) throws IOException {
+            // Une entrée peut être à la fois rattrapée depuis l'anneau et reçue en direct
+            if (entry.id() <= lastSent) return;
+            emitter.send(SseEmitter.event()
+                    .id(eventId(entry.id()))
+                    .name(entry.name())
+                    .data(entry.data(), MediaType.APPLICATION_JSON));
+            lastSent = entry.id();
+        }
+
+        void disconnect() {
+            if (!open) return;
+            close();
+            emitter.complete();
+        }
+
+        void close() {
+            open = false;
+            if (subscribers.remove(this)) release(client);
+            Thread current = thread;
+            if (current != null && current != Thread.currentThread()) current.interrupt();
+        }
+    }
+}
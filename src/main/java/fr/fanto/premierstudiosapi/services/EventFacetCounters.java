@@ -0,0 +1,202 @@
+package fr.fanto.premierstudiosapi.services;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import fr.fanto.premierstudiosapi.models.EventChange;
+import fr.fanto.premierstudiosapi.models.EventFacetRow;
+import fr.fanto.premierstudiosapi.models.EventFacets;
+import fr.fanto.premierstudiosapi.models.EventsImported;
+import fr.fanto.premierstudiosapi.repositories.EventRepo;
+
+// Agrégats du catalogue (événements par lieu et par date, inscrits par événement) tenus à jour à chaque
+// modification commitée, puis recalculés périodiquement depuis la base pour corriger toute dérive.
+// La répartition par lieu et par date est reconstruite au plus une fois par création, modification ou suppression ;
+// le total des inscrits est lu à part, une inscription n'invalide donc rien.
+@Component
+public class EventFacetCounters {
+
+    private record Entry(String location, LocalDate date, int attendees) {}
+
+    private record Layout(long totalEvents, Map<String, Long> byLocation, Map<LocalDate, Long> byDate, Instant reconciledAt) {}
+
+    private static final class State {
+        private final Map<Long, Entry> events = new HashMap<>();
+        private final Map<String, Long> byLocation = new HashMap<>();
+        private final Map<LocalDate, Long> byDate = new HashMap<>();
+        private long totalAttendees;
+        private final Instant reconciledAt = Instant.now();
+
+        void put(Long id, Entry entry) {
+            remove(id);
+            events.put(id, entry);
+            if (entry.location() != null) byLocation.merge(entry.location(), 1L, Long::sum);
+            if (entry.date() != null) byDate.merge(entry.date(), 1L, Long::sum);
+            totalAttendees += entry.attendees();
+        }
+
+        Entry remove(Long id) {
+            Entry entry = events.remove(id);
+            if (entry == null) return null;
+            if (entry.location() != null) byLocation.computeIfPresent(entry.location(), (k, n) -> n == 1 ? null : n - 1);
+            if (entry.date() != null) byDate.computeIfPresent(entry.date(), (k, n) -> n == 1 ? null : n - 1);
+            totalAttendees -= entry.attendees();
+            return entry;
+        }
+
+        // true si la répartition par lieu ou par date a pu changer
+        boolean apply(EventChange change) {
+            switch (change.type()) {
+                case CREATED -> put(change.eventId(), new Entry(change.location(), change.date(), 0));
+                case UPDATED -> {
+                    Entry previous = events.get(change.eventId());
+                    put(change.eventId(), new Entry(change.location(), change.date(),
+                            previous == null ? 0 : previous.attendees()));
+                }
+                case DELETED -> remove(change.eventId());
+                case REGISTERED -> {
+                    // Nombre absolu plutôt que delta : une inscription déjà vue par le scan, ou reçue après une plus
+                    // récente, ne change rien
+                    Entry previous = events.get(change.eventId());
+                    if (previous != null && change.attendeeCount() > previous.attendees()) {
+                        events.put(change.eventId(), new Entry(previous.location(), previous.date(), change.attendeeCount()));
+                        totalAttendees += change.attendeeCount() - previous.attendees();
+                    }
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final EventRepo eventRepo;
+    private final ReentrantLock lock = new ReentrantLock();
+    private State state = new State();
+    private volatile Layout layout;
+    private volatile long totalAttendees;
+    // Modifications reçues pendant un recalcul, rejouées sur le nouvel état avant de le publier (null hors recalcul)
+    private List<EventChange> duringReconcile;
+
+    public EventFacetCounters(EventRepo eventRepo) {
+        this.eventRepo = eventRepo;
+    }
+
+    // Recalcul complet hors verrou puis remplacement : les lectures et mises à jour ne sont jamais bloquées par le scan.
+    // Les modifications reçues pendant le scan sont rejouées sur le résultat. Toutes sont idempotentes : création,
+    // modification et suppression portent l'état complet, une inscription porte le compteur atteint par son commit et
+    // n'est appliquée que s'il dépasse celui lu par le scan.
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${events.facets.reconcile-ms:600000}", fixedDelayString = "${events.facets.reconcile-ms:600000}")
+    public void reconcile() {
+        lock.lock();
+        try {
+            duringReconcile = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+        State rebuilt = new State();
+        try (Stream<EventFacetRow> rows = eventRepo.streamFacetRows()) {
+            rows.forEach(row -> rebuilt.put(row.id(), new Entry(row.location(), row.date(), row.attendeeCount())));
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                duringReconcile = null;
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+        lock.lock();
+        try {
+            for (EventChange change : duringReconcile) {
+                rebuilt.apply(change);
+            }
+            duringReconcile = null;
+            state = rebuilt;
+            totalAttendees = rebuilt.totalAttendees;
+            layout = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChange(EventChange change) {
+        lock.lock();
+        try {
+            if (state.apply(change)) layout = null;
+            totalAttendees = state.totalAttendees;
+            if (duringReconcile != null) duringReconcile.add(change);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventsImported(EventsImported imported) {
+        lock.lock();
+        try {
+            for (EventChange change : imported.created()) {
+                state.apply(change);
+                if (duringReconcile != null) duringReconcile.add(change);
+            }
+            totalAttendees = state.totalAttendees;
+            layout = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public EventFacets facets() {
+        Layout current = layout;
+        if (current == null) {
+            lock.lock();
+            try {
+                if (layout == null) {
+                    layout = new Layout(state.events.size(),
+                            Collections.unmodifiableMap(new TreeMap<>(state.byLocation)),
+                            Collections.unmodifiableMap(new TreeMap<>(state.byDate)),
+                            state.reconciledAt);
+                }
+                current = layout;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return new EventFacets(current.totalEvents(), totalAttendees, current.byLocation(), current.byDate(),
+                current.reconciledAt());
+    }
+
+    // Inscrits par événement, les id inconnus sont ignorés
+    public Map<Long, Integer> attendees(Collection<Long> ids) {
+        Map<Long, Integer> attendees = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            for (Long id : ids) {
+                Entry entry = state.events.get(id);
+                if (entry != null) attendees.put(id, entry.attendees());
+            }
+        } finally {
+            lock.unlock();
+        }
+        return attendees;
+    }
+}
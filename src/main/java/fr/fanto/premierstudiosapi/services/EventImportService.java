@@ -0,0 +1,190 @@
+package fr.fanto.premierstudiosapi.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.fanto.premierstudiosapi.entities.User;
+import fr.fanto.premierstudiosapi.models.EventChange;
+import fr.fanto.premierstudiosapi.models.EventsImported;
+import fr.fanto.premierstudiosapi.models.ImportReport;
+import fr.fanto.premierstudiosapi.validator.EventValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+// Import en masse : lecture en flux (tableau JSON ou NDJSON), validation ligne par ligne, INSERT JDBC par lots
+@Slf4j
+@Service
+public class EventImportService {
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO event (name, date, time, location, description, capacity, attendee_count, created_by_email, " +
+            "version, updated_at) VALUES (?, ?, ?, ?, ?, ?, 0, ?, 0, ?)";
+
+    private record PendingRow(int row, EventValidator event) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher publisher;
+    private final int batchSize;
+
+    public EventImportService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper, Validator validator,
+                              ApplicationEventPublisher publisher, @Value("${events.import.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.publisher = publisher;
+        this.batchSize = batchSize;
+    }
+
+    public ImportReport importEvents(InputStream body, User user) {
+        ImportReport report = new ImportReport();
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+        int row = 0;
+
+        try (MappingIterator<EventValidator> rows = objectMapper.readerFor(EventValidator.class).readValues(body)) {
+            while (rows.hasNextValue()) {
+                row++;
+                report.received();
+                EventValidator event;
+                try {
+                    event = rows.nextValue();
+                } catch (JsonMappingException e) {
+                    // Erreur de typage : l'itérateur se resynchronise sur la valeur suivante
+                    report.failed(row, Map.of("body", e.getOriginalMessage()));
+                    continue;
+                }
+
+                Map<String, String> errors = validate(event);
+                if (!errors.isEmpty()) {
+                    report.failed(row, errors);
+                    continue;
+                }
+                batch.add(new PendingRow(row, event));
+                if (batch.size() == batchSize) {
+                    flush(batch, user.getEmail(), report);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            report.truncated(row, "Malformed JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            report.truncated(row, "Failed to read the upload");
+        }
+
+        flush(batch, user.getEmail(), report);
+        return report;
+    }
+
+    private Map<String, String> validate(EventValidator event) {
+        if (event == null) return Map.of("body", "Event cannot be null");
+        Set<ConstraintViolation<EventValidator>> violations = validator.validate(event);
+        Map<String, String> errors = new LinkedHashMap<>();
+        violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+        return errors;
+    }
+
+    // Avec rewriteBatchedStatements, un lot part en un seul INSERT multi-lignes ; en cas d'échec on rejoue ligne par ligne
+    private void flush(List<PendingRow> batch, String creator, ImportReport report) {
+        if (batch.isEmpty()) return;
+        List<EventChange> created = new ArrayList<>(batch.size());
+        KeyHolder keys = new GeneratedKeyHolder();
+        try {
+            // Un lot est atomique : s'il échoue rien n'est gardé avant le rejeu ligne par ligne
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                    con -> con.prepareStatement(INSERT_EVENT, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            bind(ps, batch.get(i).event(), creator);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    },
+                    keys));
+            List<Map<String, Object>> keyList = keys.getKeyList();
+            for (int i = 0; i < batch.size(); i++) {
+                created(keyList.get(i), batch.get(i).event(), created);
+            }
+            report.imported(batch.size());
+        } catch (DataAccessException e) {
+            created.clear();
+            for (PendingRow pending : batch) {
+                insertOne(pending, creator, report, created);
+            }
+        }
+        // Une seule notification par lot : caches, index et flux SSE suivent le lot, pas chaque ligne
+        if (!created.isEmpty()) publisher.publishEvent(new EventsImported(created));
+        batch.clear();
+    }
+
+    private void insertOne(PendingRow pending, String creator, ImportReport report, List<EventChange> created) {
+        KeyHolder key = new GeneratedKeyHolder();
+        try {
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(INSERT_EVENT, Statement.RETURN_GENERATED_KEYS);
+                bind(ps, pending.event(), creator);
+                return ps;
+            }, key);
+            created(key.getKeys(), pending.event(), created);
+            report.imported(1);
+        } catch (DataAccessException e) {
+            // Le message du pilote (contraintes, fragments SQL) reste dans les logs, jamais dans la réponse
+            log.warn("Import row {} rejected by the database", pending.row(), e);
+            report.failed(pending.row(), Map.of("database", "The event could not be saved"));
+        }
+    }
+
+    private void bind(PreparedStatement ps, EventValidator event, String creator) throws SQLException {
+        ps.setString(1, event.getName());
+        if (event.getDate() != null) ps.setDate(2, Date.valueOf(event.getDate()));
+        else ps.setNull(2, Types.DATE);
+        ps.setTime(3, Time.valueOf(event.getTime()));
+        ps.setString(4, event.getLocation());
+        ps.setString(5, event.getDescription());
+        if (event.getCapacity() != null) ps.setInt(6, event.getCapacity());
+        else ps.setNull(6, Types.INTEGER);
+        ps.setString(7, creator);
+        ps.setTimestamp(8, Timestamp.from(Instant.now()));
+    }
+
+    private static void created(Map<String, Object> key, EventValidator event, List<EventChange> created) {
+        if (key == null || key.isEmpty()) return;
+        Long id = ((Number) key.values().iterator().next()).longValue();
+        created.add(EventChange.created(id, event.getName(), event.getLocation(), event.getDate()));
+    }
+}
@@ -0,0 +1,215 @@
+package fr.fanto.premierstudiosapi.services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import fr.fanto.premierstudiosapi.models.EventChange;
+import fr.fanto.premierstudiosapi.models.EventSearchRow;
+import fr.fanto.premierstudiosapi.models.EventsImported;
+import fr.fanto.premierstudiosapi.repositories.EventRepo;
+
+// Index inversé en mémoire (trigrammes sur name/location, index exact sur date) pour /api/events/search
+@Component
+public class EventSearchIndex {
+
+    private record Document(String name, String location, LocalDate date) {}
+
+    private final EventRepo eventRepo;
+    private final boolean enabled;
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<Long, Set<Long>> nameGrams = new HashMap<>();
+    private final Map<Long, Set<Long>> locationGrams = new HashMap<>();
+    private final Map<LocalDate, Set<Long>> dates = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public EventSearchIndex(EventRepo eventRepo, @Value("${search.index.enabled:true}") boolean enabled) {
+        this.eventRepo = eventRepo;
+        this.enabled = enabled;
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) return;
+        lock.writeLock().lock();
+        try (Stream<EventSearchRow> rows = eventRepo.streamSearchRows()) {
+            documents.clear();
+            nameGrams.clear();
+            locationGrams.clear();
+            dates.clear();
+            rows.forEach(row -> add(row.id(), row.name(), row.location(), row.date()));
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Appliqué après commit : l'index ne voit jamais une modification annulée. Le verrou est pris avant de tester
+    // ready : une modification concurrente d'un rebuild attend sa fin au lieu d'être perdue, et une modification
+    // commitée avant le rebuild est de toute façon relue en base.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChange(EventChange change) {
+        switch (change.type()) {
+            case CREATED, UPDATED -> put(change.eventId(), change.name(), change.location(), change.date());
+            case DELETED -> remove(change.eventId());
+            case REGISTERED -> { }
+        }
+    }
+
+    // Un lot d'import entier sous un seul verrou d'écriture
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventsImported(EventsImported imported) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) return;
+            for (EventChange change : imported.created()) {
+                delete(change.eventId());
+                add(change.eventId(), change.name(), change.location(), change.date());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void put(Long id, String name, String location, LocalDate date) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) return;
+            delete(id);
+            add(id, name, location, date);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) return;
+            delete(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids triés des événements correspondant à tous les critères non null, mêmes règles que EventRepo.searchEvents
+    public List<Long> search(String name, LocalDate date, String location) {
+        return search(name, date, location, Integer.MAX_VALUE);
+    }
+
+    // Les limit plus petits ids seulement : un tas borné évite de trier toutes les correspondances d'un terme courant
+    public List<Long> search(String name, LocalDate date, String location, int limit) {
+        String nameQuery = normalize(name);
+        String locationQuery = normalize(location);
+
+        lock.readLock().lock();
+        try {
+            Collection<Long> candidates = documents.keySet();
+            if (date != null) {
+                candidates = smallest(candidates, dates.getOrDefault(date, Set.of()));
+            }
+            candidates = narrow(candidates, nameGrams, nameQuery);
+            candidates = narrow(candidates, locationGrams, locationQuery);
+
+            PriorityQueue<Long> kept = new PriorityQueue<>(Comparator.reverseOrder());
+            for (Long id : candidates) {
+                if (kept.size() == limit && id > kept.peek()) continue;
+                Document doc = documents.get(id);
+                if (matches(doc.name(), nameQuery) && matches(doc.location(), locationQuery)
+                        && (date == null || date.equals(doc.date()))) {
+                    kept.add(id);
+                    if (kept.size() > limit) kept.poll();
+                }
+            }
+            List<Long> ids = new ArrayList<>(kept);
+            ids.sort(null);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Long id, String name, String location, LocalDate date) {
+        Document doc = new Document(normalize(name), normalize(location), date);
+        documents.put(id, doc);
+        forEachGram(doc.name(), gram -> nameGrams.computeIfAbsent(gram, k -> new HashSet<>()).add(id));
+        forEachGram(doc.location(), gram -> locationGrams.computeIfAbsent(gram, k -> new HashSet<>()).add(id));
+        if (date != null) {
+            dates.computeIfAbsent(date, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void delete(Long id) {
+        Document doc = documents.remove(id);
+        if (doc == null) return;
+        forEachGram(doc.name(), gram -> unlink(nameGrams, gram, id));
+        forEachGram(doc.location(), gram -> unlink(locationGrams, gram, id));
+        if (doc.date() != null) {
+            unlink(dates, doc.date(), id);
+        }
+    }
+
+    // Tout résultat contient chacun des trigrammes de la requête : la plus petite posting list suffit comme candidats
+    private Collection<Long> narrow(Collection<Long> candidates, Map<Long, Set<Long>> grams, String query) {
+        if (query == null) return candidates;
+        for (int i = 0; i + 3 <= query.length(); i++) {
+            candidates = smallest(candidates, grams.getOrDefault(gram(query, i), Set.of()));
+        }
+        return candidates;
+    }
+
+    private static Collection<Long> smallest(Collection<Long> a, Collection<Long> b) {
+        return a.size() <= b.size() ? a : b;
+    }
+
+    private static boolean matches(String value, String query) {
+        return query == null || (value != null && value.contains(query));
+    }
+
+    private static <K> void unlink(Map<K, Set<Long>> postings, K key, Long id) {
+        Set<Long> ids = postings.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private static void forEachGram(String value, LongConsumer consumer) {
+        if (value == null) return;
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            consumer.accept(gram(value, i));
+        }
+    }
+
+    private static long gram(String value, int i) {
+        return ((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,46 +1,81 @@
 package fr.fanto.premierstudiosapi.services;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import fr.fanto.premierstudiosapi.entities.Event;
 import fr.fanto.premierstudiosapi.entities.User;
+import fr.fanto.premierstudiosapi.exceptions.BadRequestException;
+import fr.fanto.premierstudiosapi.exceptions.EventFullException;
 import fr.fanto.premierstudiosapi.exceptions.InternalServerErrorException;
 import fr.fanto.premierstudiosapi.exceptions.ResourceNotFoundException;
 import fr.fanto.premierstudiosapi.models.ApiResponse;
 import fr.fanto.premierstudiosapi.models.Attendees;
+import fr.fanto.premierstudiosapi.models.CursorPage;
+import fr.fanto.premierstudiosapi.models.EventChange;
+import fr.fanto.premierstudiosapi.models.EventSort;
+import fr.fanto.premierstudiosapi.models.EventVersion;
+import fr.fanto.premierstudiosapi.models.EventView;
 import fr.fanto.premierstudiosapi.repositories.EventRepo;
+import fr.fanto.premierstudiosapi.repositories.UserRepo;
+import fr.fanto.premierstudiosapi.utils.EventCursor;
 import fr.fanto.premierstudiosapi.validator.EventValidator;
 import lombok.AllArgsConstructor;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
 public class EventService {
 
+    // Borne haute des fenêtres ouvertes (événements à venir) : plus grande date DATE MySQL
+    // Résultats d'une recherche (les plus petits id), chargés par tranches pour borner la liste IN (...)
+    public static final int MAX_SEARCH_RESULTS = 1000;
+    private static final int SEARCH_LOAD_CHUNK = 500;
+    private static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final EventRepo eventRepo;
+    private final UserRepo userRepo;
+    private final EventSearchIndex searchIndex;
+    private final EventCache eventCache;
+    private final ApplicationEventPublisher publisher;
 
     public void createEvent(EventValidator eventValidator, User user) {
         try {
             Event event = Event.builder()
                             .name(eventValidator.getName())
                             .date(eventValidator.getDate())
-                            .date(eventValidator.getDate())
+                            .location(eventValidator.getLocation())
                             .description(eventValidator.getDescription())
                             .time(eventValidator.getTime())
-                            .createdBy(user)
+                            .capacity(eventValidator.getCapacity())
+                            .createdBy(userRepo.getReferenceById(user.getEmail()))
                             .build();
             eventRepo.save(event);
+            publisher.publishEvent(EventChange.created(event.getId(), event.getName(), event.getLocation(), event.getDate()));
         } catch (Exception e) {
             throw new InternalServerErrorException("Failed to create the event due to a database error.");
         }
     }
 
+    @Transactional
     public ApiResponse<String> updateEvent(Long id, EventValidator event, User user) {
         Event event2 = eventRepo.findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + id));
@@ -52,6 +87,8 @@ public class EventService {
             event2.setTime(event.getTime());
             event2.setDescription(event.getDescription());
             event2.setLocation(event.getLocation());
+            event2.setCapacity(event.getCapacity());
+            publisher.publishEvent(EventChange.updated(id, event2.getName(), event2.getLocation(), event2.getDate()));
             return new ApiResponse<>(true, 200, "Event updated successfully", null);
         } catch (Exception e) {
             throw new InternalServerErrorException("Failed to update the event due to a database error.");
@@ -65,29 +102,96 @@ public class EventService {
             throw new AccessDeniedException("You are not the owner");
         try {
             eventRepo.deleteById(id);
+            publisher.publishEvent(new EventChange(EventChange.Type.DELETED, id));
             return new ApiResponse<>(true, 200, "Event deleted successfully", null);
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new InternalServerErrorException("Failed to fetch events due to a database error.");
+        }
+    }
+
+    public Page<EventView> getAllEvents(Pageable pageable) {
+        try {
+            return eventRepo.findAllViews(pageable);
+        } catch (Exception e) {
+            throw new InternalServerErrorException("Failed to fetch events due to a database error.");
+        }
+    }
+
+    public CursorPage<EventView> getEventsAfter(EventSort sort, String after, int size) {
+        EventCursor cursor = after.isEmpty() ? null : EventCursor.decode(after, sort);
+        // Une ligne de plus que demandé pour savoir s'il existe une page suivante
+        Pageable limit = PageRequest.ofSize(size + 1);
+        try {
+            List<EventView> events = switch (sort) {
+                case ID -> eventRepo.findPageAfterId(cursor == null ? 0L : cursor.id(), limit);
+                case NAME -> cursor == null
+                        ? eventRepo.findFirstPageByName(limit)
+                        : eventRepo.findPageAfterName(cursor.name(), cursor.id(), limit);
+                case DATE -> cursor == null
+                        ? eventRepo.findFirstPageByDate(limit)
+                        : cursor.date() == null
+                            ? eventRepo.findPageAfterUndated(cursor.time(), cursor.id(), limit)
+                            : eventRepo.findPageAfterDate(cursor.date(), cursor.time(), cursor.id(), limit);
+            };
+            if (events.size() <= size) {
+                return new CursorPage<>(events, null);
+            }
+            List<EventView> content = events.subList(0, size);
+            return new CursorPage<>(content, EventCursor.of(sort, content.get(size - 1)).encode());
         } catch (Exception e) {
             throw new InternalServerErrorException("Failed to fetch events due to a database error.");
         }
     }
 
-    public Page<Event> getAllEvents(Pageable pageable) {
+    // Événements datés entre from et to inclus, triés par date puis heure ; creator restreint à un organisateur.
+    // to == null : pas de borne haute (événements à venir).
+    public CursorPage<EventView> getEventsBetween(LocalDateTime from, LocalDateTime to, String creator,
+                                                  String after, int size) {
+        LocalDateTime end = to == null ? END_OF_TIME : to;
+        if (end.isBefore(from))
+            throw new BadRequestException("'to' must not be before 'from'");
+        EventCursor cursor = after.isEmpty() ? null : EventCursor.decode(after, EventSort.DATE);
+        if (cursor != null && cursor.date() == null)
+            throw new BadRequestException("Invalid cursor");
+        // Position de départ exclusive : le curseur, sinon le début de la fenêtre avec un id avant tous les autres
+        LocalDate date = cursor == null ? from.toLocalDate() : cursor.date();
+        LocalTime time = cursor == null ? from.toLocalTime() : cursor.time();
+        Long id = cursor == null ? 0L : cursor.id();
+        Pageable limit = PageRequest.ofSize(size + 1);
         try {
-            return eventRepo.findAll(pageable);
+            List<EventView> events = creator == null
+                    ? eventRepo.findRangeAfter(date, time, id, end.toLocalDate(), end.toLocalTime(), limit)
+                    : eventRepo.findCreatorRangeAfter(creator, date, time, id, end.toLocalDate(), end.toLocalTime(), limit);
+            if (events.size() <= size) {
+                return new CursorPage<>(events, null);
+            }
+            List<EventView> content = events.subList(0, size);
+            return new CursorPage<>(content, EventCursor.of(EventSort.DATE, content.get(size - 1)).encode());
         } catch (Exception e) {
             throw new InternalServerErrorException("Failed to fetch events due to a database error.");
         }
     }
 
-    public Event getEvent(Long id) {
-        return eventRepo.findById(id).orElseThrow(() ->
-                new ResourceNotFoundException("Event not found with id: " + id)
-        );
+    public EventView getEvent(Long id) {
+        return eventCache.get(id, key -> eventRepo.findViewById(key).orElseThrow(() ->
+                new ResourceNotFoundException("Event not found with id: " + key)
+        ));
+    }
+
+    // Sert la décision 304 depuis le cache, sinon par une requête qui ne lit que la version
+    public EventVersion getEventVersion(Long id) {
+        EventView cached = eventCache.getIfPresent(id);
+        if (cached != null)
+            return EventVersion.of(cached);
+        return eventRepo.findVersionById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + id));
     }
 
-    public ApiResponse<Event> getEventResponse(Long id) {
+    public ApiResponse<EventView> getEventResponse(Long id) {
         try {
-            Event event = getEvent(id);
+            EventView event = getEvent(id);
             return new ApiResponse<>(true, 200, "Event fetched successfully", event);
         }  catch (ResourceNotFoundException e) {
             throw new ResourceNotFoundException("Event not found with id: " + id);
@@ -97,39 +201,106 @@ public class EventService {
     }
 
     public ApiResponse<Iterable<Attendees>> getAttendees(Long id, User user) {
-        Event event = eventRepo.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + id));
-        if (!isOwner(event, user))
-            throw new AccessDeniedException("You are not the owner");
+        checkOwner(id, user);
         try {
-            List<Attendees> attendeesList = event.getUsers().stream()
-                .map(attendees -> new Attendees(attendees.getEmail(), attendees.getUsername()))
-                .collect(Collectors.toList());
-
+            List<Attendees> attendeesList = eventRepo.findAttendees(id);
             return new ApiResponse<>(true, 200, "Attendees fetched successfully", attendeesList);
         } catch (Exception e) {
             return new ApiResponse<>(false, 500, "Failed to fetch attendees", null);
         }
     }
 
-    public List<Event> searchEvents(String name, LocalDate date, String location) {
+    public CursorPage<Attendees> getAttendeesAfter(Long id, User user, String after, int size) {
+        checkOwner(id, user);
+        String lastEmail = after.isEmpty() ? "" : decodeAttendeeCursor(after);
+        try {
+            List<Attendees> attendees = eventRepo.findAttendeesAfter(id, lastEmail, PageRequest.ofSize(size + 1));
+            if (attendees.size() <= size) {
+                return new CursorPage<>(attendees, null);
+            }
+            List<Attendees> content = attendees.subList(0, size);
+            String next = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(content.get(size - 1).getEmail().getBytes(StandardCharsets.UTF_8));
+            return new CursorPage<>(content, next);
+        } catch (Exception e) {
+            throw new InternalServerErrorException("Failed to fetch attendees due to a database error.");
+        }
+    }
+
+    // Appelé hors du thread de requête par l'export : la transaction tient le curseur ouvert le temps du flux
+    @Transactional(readOnly = true)
+    public void streamAttendees(Long id, Consumer<Attendees> sink) {
+        try (Stream<Attendees> attendees = eventRepo.streamAttendees(id)) {
+            attendees.forEach(sink);
+        }
+    }
+
+    public void checkOwner(Long id, User user) {
+        String ownerId = eventRepo.findCreatorEmail(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + id));
+        if (!ownerId.equals(user.getEmail()))
+            throw new AccessDeniedException("You are not the owner");
+    }
+
+    private String decodeAttendeeCursor(String after) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public List<EventView> searchEvents(String name, LocalDate date, String location) {
         try {
-            return eventRepo.searchEvents(name, date, location);
+            if (!searchIndex.isReady())
+                return eventRepo.searchEvents(name, date, location, Limit.of(MAX_SEARCH_RESULTS));
+            List<Long> ids = searchIndex.search(name, date, location, MAX_SEARCH_RESULTS);
+            List<EventView> events = new ArrayList<>(ids.size());
+            for (int from = 0; from < ids.size(); from += SEARCH_LOAD_CHUNK) {
+                events.addAll(eventRepo.findViewsByIdIn(ids.subList(from, Math.min(ids.size(), from + SEARCH_LOAD_CHUNK))));
+            }
+            return events;
         } catch (Exception e) {
             throw new InternalServerErrorException("Failed to search for events due to a database error.");
         }
     }
 
+    @Transactional
     public ApiResponse<String> register(Long id, User user) {
-        Event event = eventRepo.findById(id)
-        .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + id));
-        event.getUsers().add(user);
+        // La place est réservée avant l'insertion : l'UPDATE prend le verrou exclusif de la ligne event en premier,
+        // les inscriptions concurrentes s'y sérialisent au lieu de s'interbloquer sur le verrou partagé de la clé étrangère
+        int reserved;
         try {
-            eventRepo.save(event);
-            return new ApiResponse<>(true, 200, "Attendee sucesfully add to event", null);
+            reserved = eventRepo.incrementAttendeeCount(id, Instant.now());
+        } catch (Exception e){
+            throw new InternalServerErrorException("Failed to add user to event due to a database error.");
+        }
+        if (reserved == 0) {
+            if (!eventRepo.existsById(id))
+                throw new ResourceNotFoundException("Event not found with id: " + id);
+            if (eventRepo.existsByIdAndUsersEmail(id, user.getEmail()))
+                return new ApiResponse<>(true, 200, "Attendee already registered to event", null);
+            throw new EventFullException("Event is full");
+        }
+        int inserted;
+        try {
+            inserted = eventRepo.insertAttendee(id, user.getEmail());
+        } catch (Exception e){
+            throw new InternalServerErrorException("Failed to add user to event due to a database error.");
+        }
+        if (inserted == 0) {
+            // Déjà inscrit : la place réservée est rendue en annulant la transaction
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return new ApiResponse<>(true, 200, "Attendee already registered to event", null);
+        }
+        int attendees;
+        try {
+            attendees = eventRepo.findAttendeeCount(id);
         } catch (Exception e){
             throw new InternalServerErrorException("Failed to add user to event due to a database error.");
         }
+        publisher.publishEvent(EventChange.registered(id, 1, attendees));
+        return new ApiResponse<>(true, 200, "Attendee sucesfully add to event", null);
     }
 
     public boolean isOwner(Event event, User user) {
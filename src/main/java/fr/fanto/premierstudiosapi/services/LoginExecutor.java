@@ -0,0 +1,85 @@
+package fr.fanto.premierstudiosapi.services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import fr.fanto.premierstudiosapi.exceptions.InternalServerErrorException;
+import fr.fanto.premierstudiosapi.exceptions.TooManyRequestsException;
+import fr.fanto.premierstudiosapi.utils.QueryCountInspector;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+// Pool borné dédié au hachage BCrypt des logins : une rafale de connexions ne peut plus occuper tous les threads
+// de requête, et au-delà de la file d'attente la requête est refusée immédiatement (429) au lieu de s'empiler.
+// Un hachage commencé ne s'interrompt pas : à l'expiration du délai, c'est le travail encore en file qui est
+// abandonné, le gaspillage se limite aux hachages en cours (au plus un par thread du pool).
+@Component
+public class LoginExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    public LoginExecutor(@Value("${security.login.threads:0}") int threads,
+                         @Value("${security.login.queue-capacity:64}") int queueCapacity,
+                         @Value("${security.login.timeout-ms:5000}") long timeoutMillis,
+                         MeterRegistry registry) {
+        // 0 = un thread par cœur, BCrypt étant purement CPU
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "login-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeoutMillis;
+        ExecutorServiceMetrics.monitor(registry, executor, "login");
+    }
+
+    public <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(QueryCountInspector.propagate(task));
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("Too many login attempts in progress, retry later");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            abandon(future);
+            throw new TooManyRequestsException("Too many login attempts in progress, retry later");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new InternalServerErrorException("Something went wrong during login");
+        } catch (InterruptedException e) {
+            abandon(future);
+            Thread.currentThread().interrupt();
+            throw new InternalServerErrorException("Something went wrong during login");
+        }
+    }
+
+    // Une tâche encore en file n'est jamais exécutée et libère sa place tout de suite (l'exécuteur ne retire pas
+    // lui-même les tâches annulées) ; interrompre une tâche en cours ne servirait à rien, BCrypt ne s'arrête pas
+    private void abandon(Future<?> future) {
+        future.cancel(false);
+        if (future instanceof Runnable queued) executor.remove(queued);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
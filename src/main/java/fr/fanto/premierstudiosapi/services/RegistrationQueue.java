@@ -0,0 +1,296 @@
+package fr.fanto.premierstudiosapi.services;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import fr.fanto.premierstudiosapi.entities.User;
+import fr.fanto.premierstudiosapi.exceptions.EventFullException;
+import fr.fanto.premierstudiosapi.exceptions.InternalServerErrorException;
+import fr.fanto.premierstudiosapi.exceptions.ResourceNotFoundException;
+import fr.fanto.premierstudiosapi.exceptions.TooManyRequestsException;
+import fr.fanto.premierstudiosapi.models.ApiResponse;
+import fr.fanto.premierstudiosapi.models.EventChange;
+import fr.fanto.premierstudiosapi.repositories.EventRepo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+// Inscriptions en write-behind : file bornée dédoublonnée par (événement, utilisateur), vidée par un thread unique
+// en lots multi-lignes dès que batch-size inscriptions attendent ou que flush-interval-ms est écoulé.
+// ack=flush répond après le commit du lot (même réponse qu'en synchrone), ack=enqueue répond 202 dès la mise en file.
+@Slf4j
+@Service
+public class RegistrationQueue implements DisposableBean, HealthIndicator {
+
+    private enum Outcome { REGISTERED, ALREADY_REGISTERED, FULL, NOT_FOUND, FAILED }
+
+    private record Key(Long eventId, String email) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EventRepo eventRepo;
+    private final ApplicationEventPublisher publisher;
+    private final boolean enabled;
+    private final boolean ackOnEnqueue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long ackTimeoutMillis;
+    private final BlockingQueue<Key> queue;
+    private final Map<Key, CompletableFuture<Outcome>> pending = new ConcurrentHashMap<>();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public RegistrationQueue(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, EventRepo eventRepo,
+                             ApplicationEventPublisher publisher, MeterRegistry registry,
+                             @Value("${events.registration.write-behind.enabled:false}") boolean enabled,
+                             @Value("${events.registration.write-behind.ack:flush}") String ack,
+                             @Value("${events.registration.write-behind.queue-capacity:50000}") int queueCapacity,
+                             @Value("${events.registration.write-behind.batch-size:500}") int batchSize,
+                             @Value("${events.registration.write-behind.flush-interval-ms:50}") long flushIntervalMillis,
+                             @Value("${events.registration.write-behind.ack-timeout-ms:5000}") long ackTimeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventRepo = eventRepo;
+        this.publisher = publisher;
+        this.enabled = enabled;
+        this.ackOnEnqueue = switch (ack) {
+            case "flush" -> false;
+            case "enqueue" -> true;
+            default -> throw new IllegalArgumentException("events.registration.write-behind.ack must be flush or enqueue");
+        };
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.ackTimeoutMillis = ackTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("events.registration.queue.size", queue, BlockingQueue::size)
+                .description("Registrations waiting for the next write-behind flush")
+                .register(registry);
+        this.flusher = Thread.ofPlatform().daemon().name("registration-flusher").unstarted(this::run);
+        if (enabled) flusher.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public ApiResponse<String> register(Long id, User user) {
+        Key key = new Key(id, user.getEmail());
+        CompletableFuture<Outcome> created = new CompletableFuture<>();
+        CompletableFuture<Outcome> outcome = pending.putIfAbsent(key, created);
+        if (outcome == null) {
+            outcome = created;
+            // File pleine : refus immédiat plutôt que d'accumuler des requêtes en attente
+            if (!queue.offer(key)) {
+                pending.remove(key, created);
+                throw new TooManyRequestsException("Too many registrations in progress, retry later");
+            }
+        }
+        if (ackOnEnqueue) {
+            return new ApiResponse<>(true, 202, "Registration accepted", null);
+        }
+        try {
+            return toResponse(id, outcome.get(ackTimeoutMillis, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            return new ApiResponse<>(true, 202, "Registration accepted", null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalServerErrorException("Failed to add user to event due to a database error.");
+        } catch (ExecutionException e) {
+            throw new InternalServerErrorException("Failed to add user to event due to a database error.");
+        }
+    }
+
+    private ApiResponse<String> toResponse(Long id, Outcome outcome) {
+        return switch (outcome) {
+            case REGISTERED -> new ApiResponse<>(true, 200, "Attendee sucesfully add to event", null);
+            case ALREADY_REGISTERED -> new ApiResponse<>(true, 200, "Attendee already registered to event", null);
+            case FULL -> throw new EventFullException("Event is full");
+            case NOT_FOUND -> throw new ResourceNotFoundException("Event not found with id: " + id);
+            case FAILED -> throw new InternalServerErrorException("Failed to add user to event due to a database error.");
+        };
+    }
+
+    private void run() {
+        List<Key> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Key first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                // Attend que le lot se remplisse, au plus flush-interval-ms après la première inscription
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Key next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) break;
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    flush(batch);
+                } catch (RuntimeException e) {
+                    // Un échec imprévu (listener d'EventChange par exemple) ne doit pas arrêter le seul thread d'écriture
+                    log.error("Registration flush of {} entries failed", batch.size(), e);
+                    abandon(batch);
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    // Débloque les appelants encore en attente d'un lot qui n'a pas abouti
+    private void abandon(List<Key> batch) {
+        for (Key key : batch) {
+            CompletableFuture<Outcome> future = pending.remove(key);
+            if (future != null) future.complete(Outcome.FAILED);
+        }
+    }
+
+    private void flush(List<Key> batch) {
+        // Par événement, dans l'ordre des id pour que deux flushs ne se verrouillent jamais mutuellement
+        Map<Long, List<Key>> byEvent = new TreeMap<>();
+        for (Key key : batch) {
+            byEvent.computeIfAbsent(key.eventId(), id -> new ArrayList<>()).add(key);
+        }
+        Map<Key, Outcome> outcomes = new LinkedHashMap<>();
+        // Nombre d'inscrits de chaque événement après ce lot
+        Map<Long, Integer> counts = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Instant now = Instant.now();
+                byEvent.forEach((eventId, keys) -> outcomes.putAll(flushEvent(eventId, keys, now, counts)));
+            });
+        } catch (RuntimeException e) {
+            log.warn("Registration batch of {} failed, retrying one by one", batch.size(), e);
+            outcomes.clear();
+            counts.clear();
+            for (Key key : batch) {
+                outcomes.put(key, registerOne(key, counts));
+            }
+        }
+
+        Map<Long, Integer> changed = new TreeMap<>();
+        outcomes.forEach((key, outcome) -> {
+            if (outcome == Outcome.REGISTERED) changed.merge(key.eventId(), 1, Integer::sum);
+            CompletableFuture<Outcome> future = pending.remove(key);
+            if (future != null) future.complete(outcome);
+        });
+        // Publié après commit : invalidation des caches et de la version du catalogue
+        changed.forEach((eventId, added) ->
+                publisher.publishEvent(EventChange.registered(eventId, added, counts.getOrDefault(eventId, 0))));
+    }
+
+    private Map<Key, Outcome> flushEvent(Long eventId, List<Key> keys, Instant now, Map<Long, Integer> counts) {
+        Map<Key, Outcome> outcomes = new LinkedHashMap<>();
+        // Verrou sur la ligne de l'événement : capacité et compteur restent cohérents avec le chemin synchrone
+        List<int[]> rows = jdbcTemplate.query(
+                "SELECT capacity, attendee_count FROM event WHERE id = ? FOR UPDATE",
+                (rs, rowNum) -> {
+                    int capacity = rs.getInt("capacity");
+                    if (rs.wasNull()) capacity = Integer.MAX_VALUE;
+                    return new int[] { capacity, rs.getInt("attendee_count") };
+                },
+                eventId);
+        if (rows.isEmpty()) {
+            keys.forEach(key -> outcomes.put(key, Outcome.NOT_FOUND));
+            return outcomes;
+        }
+
+        String placeholders = String.join(",", Collections.nCopies(keys.size(), "?"));
+        List<Object> args = new ArrayList<>(keys.size() + 1);
+        args.add(eventId);
+        keys.forEach(key -> args.add(key.email()));
+        Set<String> registered = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT users_email FROM event_users WHERE event_id = ? AND users_email IN (" + placeholders + ")",
+                String.class, args.toArray()));
+
+        int attendees = rows.get(0)[1];
+        int places = Math.max(0, rows.get(0)[0] - attendees);
+        List<Object[]> inserts = new ArrayList<>();
+        for (Key key : keys) {
+            if (registered.contains(key.email())) {
+                outcomes.put(key, Outcome.ALREADY_REGISTERED);
+            } else if (inserts.size() < places) {
+                inserts.add(new Object[] { eventId, key.email() });
+                outcomes.put(key, Outcome.REGISTERED);
+            } else {
+                outcomes.put(key, Outcome.FULL);
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO event_users (event_id, users_email) VALUES (?, ?)", inserts);
+            jdbcTemplate.update("UPDATE event SET attendee_count = attendee_count + ?, updated_at = ? " +
+                    "WHERE id = ?", inserts.size(), Timestamp.from(now), eventId);
+            counts.put(eventId, attendees + inserts.size());
+        }
+        return outcomes;
+    }
+
+    // Repli ligne à ligne, mêmes requêtes que l'inscription synchrone
+    private Outcome registerOne(Key key, Map<Long, Integer> counts) {
+        try {
+            return transactionTemplate.execute(status -> {
+                if (eventRepo.incrementAttendeeCount(key.eventId(), Instant.now()) == 0) {
+                    if (!eventRepo.existsById(key.eventId())) return Outcome.NOT_FOUND;
+                    return eventRepo.existsByIdAndUsersEmail(key.eventId(), key.email())
+                            ? Outcome.ALREADY_REGISTERED : Outcome.FULL;
+                }
+                if (eventRepo.insertAttendee(key.eventId(), key.email()) == 0) {
+                    status.setRollbackOnly();
+                    return Outcome.ALREADY_REGISTERED;
+                }
+                counts.merge(key.eventId(), eventRepo.findAttendeeCount(key.eventId()), Math::max);
+                return Outcome.REGISTERED;
+            });
+        } catch (RuntimeException e) {
+            return Outcome.FAILED;
+        }
+    }
+
+    // DOWN si le thread d'écriture s'est arrêté : les inscriptions en file ne seraient plus jamais écrites
+    @Override
+    public Health health() {
+        if (!enabled) return Health.up().withDetail("writeBehind", "disabled").build();
+        Health.Builder health = flusher.isAlive() || !running ? Health.up() : Health.down();
+        return health.withDetail("queued", queue.size()).withDetail("pending", pending.size()).build();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        // Les inscriptions déjà en file sont écrites avant l'arrêt
+        running = false;
+        if (flusher.isAlive()) {
+            flusher.interrupt();
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package fr.fanto.premierstudiosapi.services;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import fr.fanto.premierstudiosapi.models.JwtClaims;
+
+// Tokens révoqués, rangés par tranche de leur date d'expiration dans un anneau de tranches.
+// Un token n'est cherché que dans la tranche de son expiration (O(1), sans allocation), et une tranche entière
+// est libérée dès que tous ses tokens ont expiré : la mémoire suit le rythme des révocations, pas leur cumul.
+@Component
+public class TokenDenylist {
+
+    private record Bucket(long index, Set<String> ids) {}
+
+    private final long bucketSeconds;
+    private final AtomicReferenceArray<Bucket> ring;
+
+    public TokenDenylist(@Value("${jwt.denylist.bucket-seconds:300}") long bucketSeconds,
+                         @Value("${jwt.expiration-seconds:86400}") long tokenLifetimeSeconds) {
+        this.bucketSeconds = bucketSeconds;
+        // Une tranche de plus que la durée de vie : deux expirations encore valides ne partagent jamais une case
+        this.ring = new AtomicReferenceArray<>((int) (tokenLifetimeSeconds / bucketSeconds) + 2);
+    }
+
+    public void revoke(JwtClaims claims) {
+        if (claims.isExpired()) return;
+        long index = indexOf(claims.expiresAt());
+        int slot = slotOf(index);
+        Bucket bucket = ring.get(slot);
+        while (bucket == null || bucket.index() != index) {
+            Bucket fresh = new Bucket(index, ConcurrentHashMap.newKeySet());
+            if (ring.compareAndSet(slot, bucket, fresh)) {
+                bucket = fresh;
+            } else {
+                bucket = ring.get(slot);
+            }
+        }
+        bucket.ids().add(claims.id());
+    }
+
+    public boolean isRevoked(JwtClaims claims) {
+        if (claims.id() == null) return false;
+        long index = indexOf(claims.expiresAt());
+        Bucket bucket = ring.get(slotOf(index));
+        return bucket != null && bucket.index() == index && bucket.ids().contains(claims.id());
+    }
+
+    // Supprime les tranches dont tous les tokens ont expiré
+    @Scheduled(fixedDelayString = "${jwt.denylist.bucket-seconds:300}", timeUnit = TimeUnit.SECONDS)
+    public void dropExpired() {
+        long current = indexOf(Instant.now());
+        for (int slot = 0; slot < ring.length(); slot++) {
+            Bucket bucket = ring.get(slot);
+            if (bucket != null && bucket.index() < current) {
+                ring.compareAndSet(slot, bucket, null);
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (int slot = 0; slot < ring.length(); slot++) {
+            Bucket bucket = ring.get(slot);
+            if (bucket != null) size += bucket.ids().size();
+        }
+        return size;
+    }
+
+    private long indexOf(Instant instant) {
+        return Math.floorDiv(instant.getEpochSecond(), bucketSeconds);
+    }
+
+    private int slotOf(long index) {
+        return (int) Math.floorMod(index, (long) ring.length());
+    }
+}
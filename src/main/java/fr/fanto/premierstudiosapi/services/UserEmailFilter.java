@@ -0,0 +1,52 @@
+package fr.fanto.premierstudiosapi.services;
+
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import fr.fanto.premierstudiosapi.repositories.UserRepo;
+import fr.fanto.premierstudiosapi.utils.BloomFilter;
+
+// Emails déjà inscrits, chargés au démarrage puis complétés à chaque inscription.
+// Tant que le chargement n'est pas terminé, tout email est considéré comme possiblement inscrit.
+@Component
+public class UserEmailFilter {
+
+    private final UserRepo userRepo;
+    private final BloomFilter filter;
+    private volatile boolean ready;
+
+    public UserEmailFilter(UserRepo userRepo,
+                           @Value("${users.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                           @Value("${users.email-filter.fpp:0.01}") double fpp) {
+        this.userRepo = userRepo;
+        this.filter = new BloomFilter(expectedInsertions, fpp);
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try (Stream<String> emails = userRepo.streamEmails()) {
+            emails.forEach(this::put);
+        }
+        ready = true;
+    }
+
+    public boolean mightExist(String email) {
+        return !ready || filter.mightContain(key(email));
+    }
+
+    public void put(String email) {
+        filter.put(key(email));
+    }
+
+    // La clé primaire MySQL compare les emails sans tenir compte de la casse
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
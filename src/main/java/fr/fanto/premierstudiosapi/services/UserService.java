@@ -1,19 +1,25 @@
 package fr.fanto.premierstudiosapi.services;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import fr.fanto.premierstudiosapi.entities.User;
+import fr.fanto.premierstudiosapi.exceptions.BadRequestException;
 import fr.fanto.premierstudiosapi.exceptions.InternalServerErrorException;
+import fr.fanto.premierstudiosapi.exceptions.TooManyRequestsException;
 import fr.fanto.premierstudiosapi.exceptions.UserAlreadyExistsException;
 import fr.fanto.premierstudiosapi.models.ApiResponse;
+import fr.fanto.premierstudiosapi.models.JwtClaims;
 import fr.fanto.premierstudiosapi.models.LoginRequest;
 import fr.fanto.premierstudiosapi.repositories.UserRepo;
 import fr.fanto.premierstudiosapi.utils.JwtUtil;
@@ -22,33 +28,38 @@ import lombok.AllArgsConstructor;
 
 @Service
 @AllArgsConstructor
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepo userRepo;
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
     private final PasswordEncoder passwordEncoder;
+    private final LoginExecutor loginExecutor;
+    private final UserEmailFilter userEmailFilter;
+    private final TokenDenylist tokenDenylist;
 
     public ApiResponse<String> doRegister(UserValidator userValidator) {
-        User user = User.builder()
-                        .email(userValidator.getEmail())
-                        .password(passwordEncoder.encode(userValidator.getPassword()))
-                        .username(userValidator.getUsername())
-                        .build();
-        if (userRepo.existsById(user.getEmail())) throw new UserAlreadyExistsException("User already exists with this email");
+        String email = userValidator.getEmail();
+        // Un email absent du filtre n'est pas inscrit : la base n'est consultée avant le hachage que sur un positif
+        if (userEmailFilter.mightExist(email) && userRepo.existsById(email))
+            throw new UserAlreadyExistsException("User already exists with this email");
         try {
-            userRepo.save(user);
-            return new ApiResponse<>(true, 200, "User created successfully", null);
+            userRepo.insert(email, userValidator.getUsername(), passwordEncoder.encode(userValidator.getPassword()));
+        } catch (DataIntegrityViolationException e) {
+            throw new UserAlreadyExistsException("User already exists with this email");
         } catch (Exception e) {
             throw new InternalServerErrorException("Failed to create the user due to a database error");
         }
+        userEmailFilter.put(email);
+        return new ApiResponse<>(true, 200, "User created successfully", null);
     }
 
     public ApiResponse<String> dologin(LoginRequest request) {
         try {
-            Authentication authentication = authenticationManager.authenticate(
+            // La vérification BCrypt tourne sur le pool dédié aux logins, pas sur le thread de requête
+            Authentication authentication = loginExecutor.execute(() -> authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-            );
+            ));
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
@@ -58,13 +69,37 @@ public class UserService implements UserDetailsService {
 
         } catch (org.springframework.security.authentication.BadCredentialsException e) {
             return new ApiResponse<>(false, 401, "Invalid email or password", null);
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
             throw new InternalServerErrorException("Something went wrong during login");
         }
     }
 
+    public ApiResponse<String> doLogout(String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer "))
+            throw new BadRequestException("Missing bearer token");
+        JwtClaims claims = jwtUtil.verify(authorization.substring(7));
+        if (claims == null)
+            throw new BadRequestException("Invalid token");
+        if (claims.id() == null)
+            throw new BadRequestException("Token cannot be revoked, log in again to get a revocable token");
+        tokenDenylist.revoke(claims);
+        SecurityContextHolder.clearContext();
+        return new ApiResponse<>(true, 200, "Logout successful", null);
+    }
+
     @Override
     public User loadUserByUsername(String email) {
         return userRepo.findById(email).orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepo.updatePassword(user.getUsername(), newPassword);
+        User updated = (User) user;
+        updated.setPassword(newPassword);
+        return updated;
+    }
 }
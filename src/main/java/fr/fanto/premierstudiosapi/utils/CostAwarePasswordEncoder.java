@@ -0,0 +1,27 @@
+package fr.fanto.premierstudiosapi.utils;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+// BCrypt au coût cible configuré : tout hash d'un autre coût, plus faible ou plus fort, est signalé pour être
+// ré-encodé au prochain login réussi (BCryptPasswordEncoder ne signale que les coûts plus faibles)
+public class CostAwarePasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private final int targetCost;
+
+    public CostAwarePasswordEncoder(int targetCost) {
+        super(targetCost);
+        this.targetCost = targetCost;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) return false;
+        Matcher matcher = BCRYPT.matcher(encodedPassword);
+        return matcher.matches() && Integer.parseInt(matcher.group(1)) != targetCost;
+    }
+}
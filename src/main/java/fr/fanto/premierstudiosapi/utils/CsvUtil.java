@@ -0,0 +1,16 @@
+package fr.fanto.premierstudiosapi.utils;
+
+public final class CsvUtil {
+
+    private CsvUtil() {
+    }
+
+    // Échappement RFC 4180 : guillemets autour des champs contenant séparateur, guillemet ou retour à la ligne
+    public static String escape(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,50 @@
+package fr.fanto.premierstudiosapi.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
+
+import fr.fanto.premierstudiosapi.exceptions.BadRequestException;
+import fr.fanto.premierstudiosapi.models.EventSort;
+import fr.fanto.premierstudiosapi.models.EventView;
+
+// Position d'un curseur keyset : valeurs de la clé de tri du dernier élément renvoyé, encodées en base64url
+public record EventCursor(EventSort sort, Long id, LocalDate date, LocalTime time, String name) {
+
+    public static EventCursor of(EventSort sort, EventView event) {
+        return new EventCursor(sort, event.id(), event.date(), event.time(), event.name());
+    }
+
+    public String encode() {
+        String raw = switch (sort) {
+            case ID -> sort.getKey() + "|" + id;
+            case DATE -> sort.getKey() + "|" + id + "|" + (date == null ? "" : date) + "|" + time;
+            case NAME -> sort.getKey() + "|" + id + "|" + name;
+        };
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EventCursor decode(String token, EventSort expected) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            EventSort sort = EventSort.from(parts[0]);
+            if (sort != expected) throw new BadRequestException("Cursor was issued for sortBy=" + sort.getKey());
+            Long id = Long.valueOf(parts[1]);
+            return switch (sort) {
+                case ID -> new EventCursor(sort, id, null, null, null);
+                case DATE -> {
+                    String[] dateTime = parts[2].split("\\|", 2);
+                    LocalDate date = dateTime[0].isEmpty() ? null : LocalDate.parse(dateTime[0]);
+                    yield new EventCursor(sort, id, date, LocalTime.parse(dateTime[1]), null);
+                }
+                case NAME -> new EventCursor(sort, id, null, null, parts[2]);
+            };
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
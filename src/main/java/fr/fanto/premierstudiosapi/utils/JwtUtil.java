@@ -3,25 +3,36 @@ package fr.fanto.premierstudiosapi.utils;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import fr.fanto.premierstudiosapi.models.JwtClaims;
+
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret.key}")
-    private String secretKey;
+    private final long expiration;
 
-    private final long expiration = 1000 * 60 * 60 * 24;
+    // Clé et parser construits une seule fois : le parser jjwt est immuable et thread-safe
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final VerifiedTokenCache tokenCache;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+    public JwtUtil(@Value("${jwt.secret.key}") String secretKey,
+                   @Value("${jwt.cache.max-size:10000}") int cacheMaxSize,
+                   @Value("${jwt.expiration-seconds:86400}") long expirationSeconds) {
+        this.expiration = expirationSeconds * 1000;
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.tokenCache = new VerifiedTokenCache(cacheMaxSize);
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -30,58 +41,57 @@ public class JwtUtil {
                 .collect(Collectors.toList());
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString()) // Identifiant unique, permet la révocation au logout
                 .subject(userDetails.getUsername()) // Email dans le "sub"
                 .claims(Map.of("roles", roles)) // Ajout du rôle dans les claims
                 .issuedAt(new Date()) // Date de création
                 .expiration(new Date(System.currentTimeMillis() + expiration)) // Date d'expiration
-                .signWith(getSigningKey(), Jwts.SIG.HS256) // Signature correcte
+                .signWith(signingKey, Jwts.SIG.HS256) // Signature correcte
                 .compact();
     }
 
+    // Vérifie la signature et décode le token en une seule passe, null si le token est invalide ou expiré
+    public JwtClaims verify(String token) {
+        String key = VerifiedTokenCache.keyOf(token);
+        JwtClaims cached = tokenCache.get(key);
+        if (cached != null) return cached;
+
+        try {
+            Claims payload = parser.parseSignedClaims(token).getPayload();
+            if (payload.getSubject() == null || payload.getExpiration() == null) return null;
+
+            JwtClaims claims = new JwtClaims(
+                    payload.getId(),
+                    payload.getSubject(),
+                    toAuthorities(payload.get("roles", List.class)),
+                    payload.getExpiration().toInstant());
+            tokenCache.put(key, claims);
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public String extractEmail(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
-    
+        JwtClaims claims = verify(token);
+        return claims != null ? claims.email() : null;
     }
 
     public List<String> extractRoles(String token) {
-        List<?> rawRoles = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .get("roles", List.class);
-
-        return rawRoles.stream()
-                .filter(role -> role instanceof String)
-                .map(role -> (String) role)
-                .toList();
+        JwtClaims claims = verify(token);
+        return claims != null ? claims.roles() : List.of();
     }
 
-    private boolean isTokenExpired(String token) {
-        try {
-            Date expiration = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getExpiration();
-            return expiration.before(new Date());
-        } catch (JwtException e) {
-            return true;
-        }
+    public boolean validateToken(String token, UserDetails userDetails) {
+        JwtClaims claims = verify(token);
+        return claims != null && claims.email().equals(userDetails.getUsername());
     }
 
-    public boolean validateToken(String token, UserDetails userDetails) {
-        try {
-            final String email = extractEmail(token);
-            return email != null && email.equals(userDetails.getUsername()) && !isTokenExpired(token);
-        } catch (JwtException e) {
-            return false;
-        }
+    private List<SimpleGrantedAuthority> toAuthorities(List<?> rawRoles) {
+        if (rawRoles == null) return List.of();
+        return rawRoles.stream()
+                .filter(role -> role instanceof String)
+                .map(role -> new SimpleGrantedAuthority((String) role))
+                .toList();
     }
 }
@@ -0,0 +1,48 @@
+package fr.fanto.premierstudiosapi.utils;
+
+import java.util.concurrent.Callable;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Compte les requêtes SQL préparées par Hibernate sur le thread courant, entre start() et stop().
+// Les requêtes JdbcTemplate (import, seeding) ne passent pas par Hibernate et ne sont pas comptées.
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNTER = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        long[] counter = COUNTER.get();
+        if (counter != null) counter[0]++;
+        return sql;
+    }
+
+    public static void start() {
+        COUNTER.set(new long[1]);
+    }
+
+    public static long count() {
+        long[] counter = COUNTER.get();
+        return counter == null ? 0 : counter[0];
+    }
+
+    // Compte les requêtes d'une tâche exécutée sur un autre thread (pool de login) avec celles du thread appelant
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        long[] counter = COUNTER.get();
+        if (counter == null) return task;
+        return () -> {
+            COUNTER.set(counter);
+            try {
+                return task.call();
+            } finally {
+                COUNTER.remove();
+            }
+        };
+    }
+
+    public static long stop() {
+        long count = count();
+        COUNTER.remove();
+        return count;
+    }
+}
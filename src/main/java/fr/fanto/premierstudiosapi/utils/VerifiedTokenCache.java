@@ -0,0 +1,51 @@
+package fr.fanto.premierstudiosapi.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import fr.fanto.premierstudiosapi.models.JwtClaims;
+
+// Tokens déjà vérifiés, chacun évincé à son exp. Une fois plein, Caffeine évince les moins utiles (TinyLFU) :
+// un nouveau token est toujours mis en cache, sans parcours de toutes les entrées
+public class VerifiedTokenCache {
+
+    private final Cache<String, JwtClaims> entries;
+
+    public VerifiedTokenCache(int maxSize) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((String key, JwtClaims claims) ->
+                        Duration.between(Instant.now(), claims.expiresAt())))
+                .build();
+    }
+
+    // La clé est un SHA-256 du token complet : jamais la seule signature, sinon un payload modifié pourrait matcher
+    public static String keyOf(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public JwtClaims get(String key) {
+        return entries.getIfPresent(key);
+    }
+
+    public void put(String key, JwtClaims claims) {
+        if (!claims.isExpired()) entries.put(key, claims);
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+}
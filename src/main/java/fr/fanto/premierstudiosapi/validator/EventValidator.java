@@ -7,6 +7,7 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -40,6 +41,10 @@ public class EventValidator {
 
     @Size(max = 500, message = "Description cannot exceed 500 characters")
     private String description;
+
+    @Min(value = 1, message = "Capacity must be at least 1")
+    @Schema(description = "Maximum number of attendees, unlimited if absent", example = "250")
+    private Integer capacity;
     
 }
 
@@ -0,0 +1,70 @@
+package fr.fanto.premierstudiosapi.configs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// GCRA : rafale de capacity requêtes, puis un jeton toutes les 1 / refill-per-second secondes
+class RateLimitFilterTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static RateLimitFilter.Limit limit(int capacity, double refillPerSecond) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setPath("/api/**");
+        rule.setCapacity(capacity);
+        rule.setRefillPerSecond(refillPerSecond);
+        return new RateLimitFilter.Limit(rule, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void allowsABurstOfCapacityThenRejects() {
+        RateLimitFilter.Limit limit = limit(3, 1);
+        long now = 10 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertThat(limit.acquire("client", now)).as("request %d", i).isZero();
+        }
+        assertThat(limit.acquire("client", now)).isEqualTo(SECOND);
+        // Un refus ne consomme pas de jeton
+        assertThat(limit.acquire("client", now)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        RateLimitFilter.Limit limit = limit(2, 4);
+        long now = 10 * SECOND;
+        limit.acquire("client", now);
+        limit.acquire("client", now);
+        assertThat(limit.acquire("client", now)).isEqualTo(SECOND / 4);
+
+        assertThat(limit.acquire("client", now + SECOND / 8)).isEqualTo(SECOND / 8);
+        assertThat(limit.acquire("client", now + SECOND / 4)).isZero();
+        assertThat(limit.acquire("client", now + SECOND / 4)).isEqualTo(SECOND / 4);
+    }
+
+    @Test
+    void idleClientsGetAFullBurstBackButNoMore() {
+        RateLimitFilter.Limit limit = limit(3, 1);
+        long now = 10 * SECOND;
+        for (int i = 0; i < 3; i++) limit.acquire("client", now);
+
+        long later = now + 60 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertThat(limit.acquire("client", later)).as("request %d", i).isZero();
+        }
+        assertThat(limit.acquire("client", later)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void keepsOneBucketPerKey() {
+        RateLimitFilter.Limit limit = limit(1, 1);
+        long now = 10 * SECOND;
+        assertThat(limit.acquire("10.0.0.1", now)).isZero();
+        assertThat(limit.acquire("10.0.0.1", now)).isPositive();
+        assertThat(limit.acquire("10.0.0.2", now)).isZero();
+    }
+}
@@ -0,0 +1,86 @@
+package fr.fanto.premierstudiosapi.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import fr.fanto.premierstudiosapi.exceptions.TooManyRequestsException;
+import fr.fanto.premierstudiosapi.models.EventChange;
+import fr.fanto.premierstudiosapi.models.EventsImported;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Décisions de reprise par Last-Event-ID et plafond de connexions par client
+class EventChangeFeedTests {
+
+    private final EventChangeFeed feed = new EventChangeFeed(4, 16, 10, 2, 60_000, 60_000, new SimpleMeterRegistry());
+
+    @AfterEach
+    void close() {
+        feed.destroy();
+    }
+
+    private void publish(int changes) {
+        for (int i = 0; i < changes; i++) {
+            feed.onEventChange(EventChange.registered(1L, 1, i + 1));
+        }
+    }
+
+    private static List<Long> ids(List<EventChangeFeed.Entry> entries) {
+        return entries.stream().map(EventChangeFeed.Entry::id).toList();
+    }
+
+    @Test
+    void resumesAfterTheLastEventId() {
+        publish(3);
+        assertThat(ids(feed.since(feed.eventId(1)))).containsExactly(2L, 3L);
+        assertThat(feed.since(feed.eventId(3))).isEmpty();
+        assertThat(ids(feed.since(" " + feed.eventId(0) + " "))).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void publishesAnImportBatchAsOneEntry() {
+        publish(1);
+        feed.onEventsImported(new EventsImported(List.of(
+                EventChange.created(2L, "Jazz", "Lyon", null),
+                EventChange.created(3L, "Rock", "Paris", null))));
+        List<EventChangeFeed.Entry> entries = feed.since(feed.eventId(0));
+        assertThat(entries).extracting(EventChangeFeed.Entry::name).containsExactly("registered", "imported");
+    }
+
+    @Test
+    void resetsWhenHistoryIsGone() {
+        publish(10);
+        // Anneau de 4 entrées : 7 à 10 sont encore là
+        assertThat(ids(feed.since(feed.eventId(6)))).containsExactly(7L, 8L, 9L, 10L);
+        assertThat(feed.since(feed.eventId(5))).isNull();
+    }
+
+    @Test
+    void resetsOnIdsFromAnotherRun() {
+        publish(3);
+        // Même séquence, démarrage précédent ou autre instance
+        assertThat(feed.since("0-2")).isNull();
+        assertThat(feed.since("2")).isNull();
+        assertThat(feed.since(feed.eventId(4))).isNull();
+        assertThat(feed.since(feed.eventId(-1))).isNull();
+        assertThat(feed.since(feed.eventId(1) + "x")).isNull();
+        assertThat(feed.since("garbage")).isNull();
+    }
+
+    @Test
+    void capsConnectionsPerClient() {
+        feed.subscribe(null, "10.0.0.1");
+        feed.subscribe(null, "10.0.0.1");
+        assertThatThrownBy(() -> feed.subscribe(null, "10.0.0.1")).isInstanceOf(TooManyRequestsException.class);
+        feed.subscribe(null, "10.0.0.2");
+
+        // Les connexions fermées libèrent leur place
+        feed.destroy();
+        feed.subscribe(null, "10.0.0.1");
+        feed.subscribe(null, "10.0.0.1");
+    }
+}
@@ -0,0 +1,102 @@
+package fr.fanto.premierstudiosapi.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import fr.fanto.premierstudiosapi.models.EventChange;
+import fr.fanto.premierstudiosapi.models.EventFacetRow;
+import fr.fanto.premierstudiosapi.models.EventFacets;
+import fr.fanto.premierstudiosapi.repositories.EventRepo;
+
+class EventFacetCountersTests {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 7, 14);
+
+    private EventRepo eventRepo;
+    private EventFacetCounters counters;
+
+    @BeforeEach
+    void build() {
+        eventRepo = mock(EventRepo.class);
+        when(eventRepo.streamFacetRows()).thenReturn(Stream.of(
+                new EventFacetRow(1L, "Paris", DATE, 3),
+                new EventFacetRow(2L, "Lyon", DATE, 2)));
+        counters = new EventFacetCounters(eventRepo);
+        counters.reconcile();
+    }
+
+    @Test
+    void registrationsOnlyMoveTheTotal() {
+        EventFacets before = counters.facets();
+        counters.onEventChange(EventChange.registered(1L, 4, 7));
+
+        EventFacets after = counters.facets();
+        assertThat(after.totalAttendees()).isEqualTo(9);
+        // Répartition inchangée : même vue, pas de reconstruction
+        assertThat(after.byLocation()).isSameAs(before.byLocation());
+        assertThat(counters.attendees(List.of(1L, 2L, 9L))).isEqualTo(Map.of(1L, 7, 2L, 2));
+    }
+
+    @Test
+    void catalogChangesRebuildTheLayout() {
+        counters.onEventChange(EventChange.updated(2L, "Concert", "Paris", DATE.plusDays(1)));
+        counters.onEventChange(EventChange.created(3L, "Festival", "Nantes", null));
+
+        EventFacets facets = counters.facets();
+        assertThat(facets.totalEvents()).isEqualTo(3);
+        assertThat(facets.totalAttendees()).isEqualTo(5);
+        assertThat(facets.byLocation()).isEqualTo(Map.of("Paris", 2L, "Nantes", 1L));
+        assertThat(facets.byDate()).isEqualTo(Map.of(DATE, 1L, DATE.plusDays(1), 1L));
+
+        counters.onEventChange(new EventChange(EventChange.Type.DELETED, 1L));
+        assertThat(counters.facets().totalAttendees()).isEqualTo(2);
+        assertThat(counters.facets().byLocation()).isEqualTo(Map.of("Paris", 1L, "Nantes", 1L));
+    }
+
+    @Test
+    void changesCommittedDuringAScanAreKept() {
+        // Le scan ne voit pas les modifications commitées après son début : elles sont rejouées sur son résultat
+        when(eventRepo.streamFacetRows()).thenAnswer(invocation -> {
+            counters.onEventChange(EventChange.created(3L, "Festival", "Nantes", DATE));
+            counters.onEventChange(EventChange.registered(1L, 1, 4));
+            counters.onEventChange(new EventChange(EventChange.Type.DELETED, 2L));
+            return Stream.of(new EventFacetRow(1L, "Paris", DATE, 3), new EventFacetRow(2L, "Lyon", DATE, 2));
+        });
+        counters.reconcile();
+
+        EventFacets facets = counters.facets();
+        assertThat(facets.totalEvents()).isEqualTo(2);
+        assertThat(facets.totalAttendees()).isEqualTo(4);
+        assertThat(facets.byLocation()).isEqualTo(Map.of("Paris", 1L, "Nantes", 1L));
+    }
+
+    @Test
+    void registrationsAlreadySeenByTheScanAreNotCountedTwice() {
+        // Commit avant la lecture de la ligne, notification pendant le scan : le scan lit déjà 4 inscrits
+        when(eventRepo.streamFacetRows()).thenAnswer(invocation -> {
+            counters.onEventChange(EventChange.registered(1L, 1, 4));
+            return Stream.of(new EventFacetRow(1L, "Paris", DATE, 4), new EventFacetRow(2L, "Lyon", DATE, 2));
+        });
+        counters.reconcile();
+
+        assertThat(counters.facets().totalAttendees()).isEqualTo(6);
+        assertThat(counters.attendees(List.of(1L))).isEqualTo(Map.of(1L, 4));
+    }
+
+    @Test
+    void ignoresRegistrationsReceivedOutOfOrder() {
+        counters.onEventChange(EventChange.registered(1L, 1, 5));
+        counters.onEventChange(EventChange.registered(1L, 1, 4));
+        assertThat(counters.attendees(List.of(1L))).isEqualTo(Map.of(1L, 5));
+        assertThat(counters.facets().totalAttendees()).isEqualTo(7);
+    }
+}
@@ -0,0 +1,78 @@
+package fr.fanto.premierstudiosapi.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import fr.fanto.premierstudiosapi.models.EventChange;
+import fr.fanto.premierstudiosapi.models.EventSearchRow;
+import fr.fanto.premierstudiosapi.models.EventsImported;
+import fr.fanto.premierstudiosapi.repositories.EventRepo;
+
+// Mêmes règles que EventRepo.searchEvents : sous-chaîne insensible à la casse, date exacte, critères combinés
+class EventSearchIndexTests {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 7, 14);
+
+    private EventSearchIndex index;
+
+    @BeforeEach
+    void build() {
+        EventRepo eventRepo = mock(EventRepo.class);
+        when(eventRepo.streamSearchRows()).thenReturn(Stream.of(
+                new EventSearchRow(1L, "Jazz à Vienne", "Vienne", DATE),
+                new EventSearchRow(2L, "Nuit du Jazz", "Paris", DATE.plusDays(1)),
+                new EventSearchRow(3L, "Rock en Seine", "Paris", DATE)));
+        index = new EventSearchIndex(eventRepo, true);
+        index.rebuild();
+    }
+
+    @Test
+    void matchesSubstrings() {
+        assertThat(index.search("JAZZ", null, null)).containsExactly(1L, 2L);
+        assertThat(index.search("azz", null, "paris")).containsExactly(2L);
+        assertThat(index.search(null, DATE, "PAR")).containsExactly(3L);
+        assertThat(index.search("opera", null, null)).isEmpty();
+    }
+
+    @Test
+    void shortQueriesFallBackToScanning() {
+        // Moins de trois caractères : aucun trigramme, chaque document est vérifié
+        assertThat(index.search("en", null, null)).containsExactly(1L, 3L);
+        assertThat(index.search(null, null, "pa")).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void keepsTheSmallestIdsUpToTheLimit() {
+        assertThat(index.search(null, DATE, null, 1)).containsExactly(1L);
+        assertThat(index.search(null, null, null, 2)).containsExactly(1L, 2L);
+        assertThat(index.search("jazz", null, null, 10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void followsCommittedChanges() {
+        index.onEventChange(EventChange.updated(1L, "Opéra de Lyon", "Lyon", DATE));
+        assertThat(index.search("jazz", null, null)).containsExactly(2L);
+        assertThat(index.search("opéra", DATE, "lyon")).containsExactly(1L);
+
+        index.onEventChange(new EventChange(EventChange.Type.DELETED, 2L));
+        assertThat(index.search("jazz", null, null)).isEmpty();
+        assertThat(index.search(null, DATE.plusDays(1), null)).isEmpty();
+
+        index.onEventChange(EventChange.created(4L, "Jazz Club", "Lyon", null));
+        assertThat(index.search("jazz", null, "lyon")).containsExactly(4L);
+        assertThat(index.search(null, null, "lyon")).containsExactly(1L, 4L);
+
+        index.onEventsImported(new EventsImported(List.of(
+                EventChange.created(5L, "Jazz Brunch", "Lyon", null),
+                EventChange.created(6L, "Jazz Night", "Nantes", null))));
+        assertThat(index.search("jazz", null, null)).containsExactly(4L, 5L, 6L);
+    }
+}
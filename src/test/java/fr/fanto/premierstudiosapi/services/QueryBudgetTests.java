@@ -0,0 +1,271 @@
+package fr.fanto.premierstudiosapi.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import fr.fanto.premierstudiosapi.configs.JwtAuthenticationFilter;
+import fr.fanto.premierstudiosapi.entities.User;
+import fr.fanto.premierstudiosapi.models.ApiResponse;
+import fr.fanto.premierstudiosapi.models.Attendees;
+import fr.fanto.premierstudiosapi.models.CursorPage;
+import fr.fanto.premierstudiosapi.models.EventSort;
+import fr.fanto.premierstudiosapi.models.EventView;
+import fr.fanto.premierstudiosapi.models.LoginRequest;
+import fr.fanto.premierstudiosapi.utils.JwtUtil;
+import fr.fanto.premierstudiosapi.utils.QueryCountInspector;
+import fr.fanto.premierstudiosapi.validator.EventValidator;
+import fr.fanto.premierstudiosapi.validator.UserValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+
+// Budget de requêtes SQL par opération de service : un N+1 sur Event.users ou Event.createdBy fait échouer le test.
+// Les budgets ne dépendent pas du nombre de lignes, les jeux de données sont volontairement plus grands que les pages.
+@SpringBootTest
+@ActiveProfiles("test")
+class QueryBudgetTests {
+
+    private static final int EVENTS = 30;
+    private static final int ATTENDEES = 15;
+    private static final String PASSWORD = "Password@123";
+
+    // Budgets déclarés par opération
+    private static final int GET_ALL_EVENTS = 2;        // page + count
+    private static final int GET_EVENTS_AFTER = 1;
+    private static final int GET_EVENTS_BETWEEN = 1;
+    private static final int GET_EVENT_COLD = 1;
+    private static final int GET_EVENT_CACHED = 0;
+    private static final int SEARCH_EVENTS = 1;         // ids depuis l'index, puis une projection
+    private static final int GET_ATTENDEES = 2;         // propriétaire + participants
+    private static final int GET_ATTENDEES_AFTER = 2;
+    private static final int REGISTER = 3;              // compteur + insertion + nombre d'inscrits publié
+    private static final int REGISTER_DUPLICATE = 2;    // compteur + insertion ignorée, annulés ensemble
+    private static final int CREATE_EVENT = 1;
+    private static final int UPDATE_EVENT = 2;
+    private static final int REGISTER_USER = 1;         // insertion seule, l'email est absent du filtre
+    private static final int LOGIN = 1;
+    private static final int AUTHENTICATE = 0;          // principal reconstruit depuis les claims du JWT
+    private static final int AUTHENTICATE_STATEFUL = 1; // référence : chargement de l'utilisateur à chaque requête
+
+    @Autowired private EventService eventService;
+    @Autowired private UserService userService;
+    @Autowired private EventSearchIndex searchIndex;
+    @Autowired private EventCache eventCache;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private JwtAuthenticationFilter jwtFilter;
+    @Autowired private JwtUtil jwtUtil;
+    @Autowired private TokenDenylist denylist;
+
+    private final User owner = User.builder().email("owner@test.local").build();
+    private final User attendee = User.builder().email("attendee@test.local").build();
+    private List<Long> eventIds;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM event_users");
+        jdbcTemplate.update("DELETE FROM event");
+        jdbcTemplate.update("DELETE FROM user");
+
+        String hash = passwordEncoder.encode(PASSWORD);
+        List<Object[]> users = new ArrayList<>();
+        users.add(new Object[] { owner.getEmail(), "owner", hash });
+        users.add(new Object[] { attendee.getEmail(), "attendee", hash });
+        for (int i = 0; i < ATTENDEES; i++) {
+            users.add(new Object[] { "guest" + i + "@test.local", "guest" + i, hash });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user (email, username, password) VALUES (?, ?, ?)", users);
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> events = new ArrayList<>();
+        for (int i = 0; i < EVENTS; i++) {
+            events.add(new Object[] { "Concert " + i, Date.valueOf(LocalDate.now().plusDays(i)),
+                    Time.valueOf(LocalTime.NOON), "Paris", "Description " + i, owner.getEmail(), now });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO event (name, date, time, location, description, attendee_count, " +
+                "created_by_email, version, updated_at) VALUES (?, ?, ?, ?, ?, 0, ?, 0, ?)", events);
+        eventIds = jdbcTemplate.queryForList("SELECT id FROM event ORDER BY id", Long.class);
+
+        List<Object[]> registrations = new ArrayList<>();
+        for (int i = 0; i < ATTENDEES; i++) {
+            registrations.add(new Object[] { eventIds.get(0), "guest" + i + "@test.local" });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO event_users (event_id, users_email) VALUES (?, ?)", registrations);
+        jdbcTemplate.update("UPDATE event SET attendee_count = ? WHERE id = ?", ATTENDEES, eventIds.get(0));
+
+        searchIndex.rebuild();
+        eventCache.nativeCache().invalidateAll();
+    }
+
+    @AfterEach
+    void clear() {
+        QueryCountInspector.stop();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void paging() {
+        Page<EventView> page = withinBudget("getAllEvents", GET_ALL_EVENTS,
+                () -> eventService.getAllEvents(PageRequest.of(1, 10, EventSort.DATE.getSort())));
+        assertThat(page.getContent()).hasSize(10);
+
+        CursorPage<EventView> first = withinBudget("getEventsAfter", GET_EVENTS_AFTER,
+                () -> eventService.getEventsAfter(EventSort.DATE, "", 10));
+        CursorPage<EventView> second = withinBudget("getEventsAfter", GET_EVENTS_AFTER,
+                () -> eventService.getEventsAfter(EventSort.DATE, first.getNextCursor(), 10));
+        assertThat(second.getContent()).hasSize(10);
+    }
+
+    @Test
+    void calendarRanges() {
+        LocalDateTime from = LocalDate.now().atStartOfDay();
+        CursorPage<EventView> first = withinBudget("getEventsBetween", GET_EVENTS_BETWEEN,
+                () -> eventService.getEventsBetween(from, from.plusDays(14), null, "", 10));
+        CursorPage<EventView> second = withinBudget("getEventsBetween", GET_EVENTS_BETWEEN,
+                () -> eventService.getEventsBetween(from, from.plusDays(14), null, first.getNextCursor(), 10));
+        assertThat(second.getContent()).hasSize(4);
+
+        CursorPage<EventView> byCreator = withinBudget("getEventsBetween (creator)", GET_EVENTS_BETWEEN,
+                () -> eventService.getEventsBetween(from, null, owner.getEmail(), "", 10));
+        assertThat(byCreator.getContent()).hasSize(10);
+    }
+
+    @Test
+    void eventRead() {
+        Long id = eventIds.get(0);
+        EventView event = withinBudget("getEvent", GET_EVENT_COLD, () -> eventService.getEvent(id));
+        assertThat(event.attendeeCount()).isEqualTo(ATTENDEES);
+        withinBudget("getEvent (cached)", GET_EVENT_CACHED, () -> eventService.getEvent(id));
+    }
+
+    @Test
+    void search() {
+        List<EventView> events = withinBudget("searchEvents", SEARCH_EVENTS,
+                () -> eventService.searchEvents("concert", null, "paris"));
+        assertThat(events).hasSize(EVENTS);
+    }
+
+    @Test
+    void attendeeListing() {
+        Long id = eventIds.get(0);
+        ApiResponse<Iterable<Attendees>> response = withinBudget("getAttendees", GET_ATTENDEES,
+                () -> eventService.getAttendees(id, owner));
+        assertThat(response.getData()).hasSize(ATTENDEES);
+
+        CursorPage<Attendees> page = withinBudget("getAttendeesAfter", GET_ATTENDEES_AFTER,
+                () -> eventService.getAttendeesAfter(id, owner, "", 5));
+        assertThat(page.getContent()).hasSize(5);
+    }
+
+    @Test
+    void registration() {
+        Long id = eventIds.get(1);
+        withinBudget("register", REGISTER, () -> eventService.register(id, attendee));
+        withinBudget("register (duplicate)", REGISTER_DUPLICATE, () -> eventService.register(id, attendee));
+        assertThat(eventService.getEvent(id).attendeeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void eventWrites() {
+        EventValidator event = EventValidator.builder()
+                .name("Festival")
+                .date(LocalDate.now().plusDays(3))
+                .time(LocalTime.of(20, 0))
+                .location("Lyon")
+                .description("Plein air")
+                .capacity(100)
+                .build();
+        withinBudget("createEvent", CREATE_EVENT, () -> {
+            eventService.createEvent(event, owner);
+            return null;
+        });
+
+        event.setName("Festival d'été");
+        withinBudget("updateEvent", UPDATE_EVENT, () -> eventService.updateEvent(eventIds.get(2), event, owner));
+    }
+
+    @Test
+    void userOperations() {
+        UserValidator user = UserValidator.builder()
+                .email("new@test.local")
+                .username("newcomer")
+                .password(PASSWORD)
+                .build();
+        withinBudget("doRegister", REGISTER_USER, () -> userService.doRegister(user));
+
+        // Le chargement de l'utilisateur tourne sur le pool de login : il doit être compté, pas mesurer 0
+        QueryCountInspector.start();
+        ApiResponse<String> login = userService.dologin(new LoginRequest(owner.getEmail(), PASSWORD));
+        assertThat(QueryCountInspector.stop())
+                .as("SQL statements issued by dologin")
+                .isEqualTo(LOGIN);
+        assertThat(login.getStatusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void authentication() {
+        String token = jwtUtil.generateToken(owner);
+        User principal = withinBudget("authenticate", AUTHENTICATE, () -> authenticate(jwtFilter, token));
+        assertThat(principal.getEmail()).isEqualTo(owner.getEmail());
+
+        JwtAuthenticationFilter stateful = new JwtAuthenticationFilter(jwtUtil, denylist, userService, false,
+                new SimpleMeterRegistry());
+        QueryCountInspector.start();
+        authenticate(stateful, token);
+        assertThat(QueryCountInspector.stop())
+                .as("SQL statements issued by authenticate (stateful)")
+                .isEqualTo(AUTHENTICATE_STATEFUL);
+    }
+
+    // Passe une requête authentifiée dans le filtre JWT et renvoie le principal posé dans le contexte de sécurité
+    private User authenticate(JwtAuthenticationFilter filter, String token) {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events/1/attendees");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        } catch (IOException | ServletException e) {
+            throw new IllegalStateException(e);
+        }
+        return (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    }
+
+    private <T> T withinBudget(String operation, int budget, Supplier<T> call) {
+        QueryCountInspector.start();
+        try {
+            T result = call.get();
+            assertThat(QueryCountInspector.count())
+                    .as("SQL statements issued by %s", operation)
+                    .isLessThanOrEqualTo(budget);
+            return result;
+        } finally {
+            QueryCountInspector.stop();
+        }
+    }
+}
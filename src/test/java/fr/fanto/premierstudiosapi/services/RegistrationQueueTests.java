@@ -0,0 +1,112 @@
+package fr.fanto.premierstudiosapi.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import fr.fanto.premierstudiosapi.entities.User;
+import fr.fanto.premierstudiosapi.exceptions.EventFullException;
+import fr.fanto.premierstudiosapi.exceptions.ResourceNotFoundException;
+import fr.fanto.premierstudiosapi.models.ApiResponse;
+
+// Inscriptions en write-behind (ack=flush) : mêmes réponses et mêmes garanties de capacité que le chemin synchrone
+@SpringBootTest(properties = "events.registration.write-behind.enabled=true")
+@ActiveProfiles("test")
+class RegistrationQueueTests {
+
+    private static final int CAPACITY = 10;
+    private static final int GUESTS = 25;
+
+    @Autowired private RegistrationQueue registrationQueue;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Long eventId;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM event_users");
+        jdbcTemplate.update("DELETE FROM event");
+        jdbcTemplate.update("DELETE FROM user");
+
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < GUESTS; i++) {
+            users.add(new Object[] { guest(i).getEmail(), "guest" + i, "{noop}unused" });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user (email, username, password) VALUES (?, ?, ?)", users);
+        jdbcTemplate.update("INSERT INTO event (name, date, time, location, description, capacity, attendee_count, " +
+                "created_by_email, version, updated_at) VALUES ('Concert', ?, ?, 'Paris', 'Description', ?, 0, ?, 0, ?)",
+                Date.valueOf(LocalDate.now().plusDays(1)), Time.valueOf(LocalTime.NOON), CAPACITY,
+                guest(0).getEmail(), Timestamp.from(Instant.now()));
+        eventId = jdbcTemplate.queryForObject("SELECT id FROM event", Long.class);
+    }
+
+    @Test
+    void concurrentRegistrationsNeverExceedCapacity() throws Exception {
+        List<Future<ApiResponse<String>>> calls = new ArrayList<>();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < GUESTS; i++) {
+                User user = guest(i);
+                calls.add(pool.submit(() -> registrationQueue.register(eventId, user)));
+            }
+        }
+        int registered = 0;
+        int full = 0;
+        for (Future<ApiResponse<String>> call : calls) {
+            try {
+                assertThat(call.get().getStatusCode()).isEqualTo(200);
+                registered++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(EventFullException.class);
+                full++;
+            }
+        }
+        assertThat(registered).isEqualTo(CAPACITY);
+        assertThat(full).isEqualTo(GUESTS - CAPACITY);
+        assertThat(attendeeCount()).isEqualTo(CAPACITY);
+        assertThat(rows()).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void duplicatesAndUnknownEvents() {
+        assertThat(registrationQueue.register(eventId, guest(1)).getMessage()).isEqualTo("Attendee sucesfully add to event");
+        assertThat(registrationQueue.register(eventId, guest(1)).getMessage()).isEqualTo("Attendee already registered to event");
+        assertThat(attendeeCount()).isEqualTo(1);
+        assertThat(rows()).isEqualTo(1);
+
+        assertThatThrownBy(() -> registrationQueue.register(eventId + 1, guest(1)))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(registrationQueue.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    private int attendeeCount() {
+        return jdbcTemplate.queryForObject("SELECT attendee_count FROM event WHERE id = ?", Integer.class, eventId);
+    }
+
+    private int rows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_users WHERE event_id = ?", Integer.class, eventId);
+    }
+
+    private static User guest(int i) {
+        return User.builder().email("guest" + i + "@test.local").build();
+    }
+}
@@ -0,0 +1,65 @@
+package fr.fanto.premierstudiosapi.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import fr.fanto.premierstudiosapi.models.JwtClaims;
+
+class TokenDenylistTests {
+
+    private static JwtClaims token(String id, Instant expiresAt) {
+        return new JwtClaims(id, "user@test.local", List.of(), expiresAt);
+    }
+
+    @Test
+    void findsRevokedTokensOnly() {
+        TokenDenylist denylist = new TokenDenylist(300, 86_400);
+        Instant expiresAt = Instant.now().plusSeconds(3_600);
+        denylist.revoke(token("revoked", expiresAt));
+
+        assertThat(denylist.isRevoked(token("revoked", expiresAt))).isTrue();
+        assertThat(denylist.isRevoked(token("other", expiresAt))).isFalse();
+        // Tokens émis avant le claim jti : jamais révocables, jamais rejetés
+        assertThat(denylist.isRevoked(token(null, expiresAt))).isFalse();
+    }
+
+    @Test
+    void expirationsAcrossTheWholeLifetimeNeverShareABucket() {
+        TokenDenylist denylist = new TokenDenylist(1, 10);
+        Instant now = Instant.now();
+        for (int second = 1; second <= 10; second++) {
+            denylist.revoke(token("t" + second, now.plusSeconds(second)));
+        }
+        for (int second = 1; second <= 10; second++) {
+            assertThat(denylist.isRevoked(token("t" + second, now.plusSeconds(second)))).as("t%d", second).isTrue();
+        }
+        assertThat(denylist.size()).isEqualTo(10);
+    }
+
+    @Test
+    void ignoresTokensAlreadyExpired() {
+        TokenDenylist denylist = new TokenDenylist(300, 86_400);
+        denylist.revoke(token("expired", Instant.now().minusSeconds(1)));
+        assertThat(denylist.size()).isZero();
+    }
+
+    @Test
+    void dropsBucketsOnceTheirTokensHaveExpired() throws InterruptedException {
+        TokenDenylist denylist = new TokenDenylist(1, 10);
+        Instant soon = Instant.now().plusMillis(500);
+        Instant later = Instant.now().plusSeconds(8);
+        denylist.revoke(token("soon", soon));
+        denylist.revoke(token("later", later));
+
+        // La tranche d'une expiration est libérée une fois la seconde suivante entamée
+        Thread.sleep(Instant.ofEpochSecond(soon.getEpochSecond() + 1).toEpochMilli() - System.currentTimeMillis() + 50);
+        denylist.dropExpired();
+
+        assertThat(denylist.size()).isEqualTo(1);
+        assertThat(denylist.isRevoked(token("later", later))).isTrue();
+    }
+}
@@ -0,0 +1,58 @@
+package fr.fanto.premierstudiosapi.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTests {
+
+    private static final int INSERTIONS = 20_000;
+
+    @Test
+    void neverReportsAnInsertedValueAsAbsent() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("user" + i + "@test.local");
+        }
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertThat(filter.mightContain("user" + i + "@test.local")).as("user%d", i).isTrue();
+        }
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheTargetRate() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("user" + i + "@test.local");
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < INSERTIONS; i++) {
+            if (filter.mightContain("other" + i + "@test.local")) falsePositives++;
+        }
+        // 1 % visé, marge pour la variance de l'échantillon
+        assertThat(falsePositives).isLessThan(INSERTIONS * 2 / 100);
+    }
+
+    @Test
+    void concurrentInsertionsAreNotLost() throws InterruptedException {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int offset = t;
+            pool.execute(() -> {
+                for (int i = offset; i < INSERTIONS; i += 8) {
+                    filter.put("user" + i + "@test.local");
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertThat(filter.mightContain("user" + i + "@test.local")).as("user%d", i).isTrue();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package fr.fanto.premierstudiosapi.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import fr.fanto.premierstudiosapi.exceptions.BadRequestException;
+import fr.fanto.premierstudiosapi.models.EventSort;
+
+class EventCursorTests {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 7, 14);
+    private static final LocalTime TIME = LocalTime.of(20, 30);
+
+    @Test
+    void roundTripsEverySortKey() {
+        EventCursor byId = new EventCursor(EventSort.ID, 42L, null, null, null);
+        assertThat(EventCursor.decode(byId.encode(), EventSort.ID)).isEqualTo(byId);
+
+        EventCursor byDate = new EventCursor(EventSort.DATE, 42L, DATE, TIME, null);
+        assertThat(EventCursor.decode(byDate.encode(), EventSort.DATE)).isEqualTo(byDate);
+
+        // Les événements sans date sont triés en premier et gardent leur position
+        EventCursor undated = new EventCursor(EventSort.DATE, 7L, null, TIME, null);
+        assertThat(EventCursor.decode(undated.encode(), EventSort.DATE)).isEqualTo(undated);
+
+        EventCursor byName = new EventCursor(EventSort.NAME, 42L, null, null, "Rock | Folk éà");
+        assertThat(EventCursor.decode(byName.encode(), EventSort.NAME)).isEqualTo(byName);
+    }
+
+    @Test
+    void encodesUrlSafeTokens() {
+        String token = new EventCursor(EventSort.NAME, 1L, null, null, "???>>>").encode();
+        assertThat(token).doesNotContain("+", "/", "=");
+    }
+
+    @Test
+    void rejectsCursorOfAnotherSort() {
+        String token = new EventCursor(EventSort.ID, 42L, null, null, null).encode();
+        assertThatThrownBy(() -> EventCursor.decode(token, EventSort.NAME))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("sortBy=id");
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        for (String raw : new String[] { "", "id", "id|abc", "date|1|2026-13-01|20:30", "date|1", "unknown|1" }) {
+            String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+            assertThatThrownBy(() -> EventCursor.decode(token, EventSort.DATE)).isInstanceOf(BadRequestException.class);
+        }
+        assertThatThrownBy(() -> EventCursor.decode("not base64 !", EventSort.ID)).isInstanceOf(BadRequestException.class);
+    }
+}
@@ -0,0 +1,46 @@
+package fr.fanto.premierstudiosapi.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import fr.fanto.premierstudiosapi.models.JwtClaims;
+
+class VerifiedTokenCacheTests {
+
+    private static JwtClaims claims(Instant expiresAt) {
+        return new JwtClaims("jti", "user@test.local", List.of(), expiresAt);
+    }
+
+    @Test
+    void servesTokensUntilTheirExpiration() throws InterruptedException {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        JwtClaims longLived = claims(Instant.now().plusSeconds(3_600));
+        JwtClaims shortLived = claims(Instant.now().plusMillis(50));
+        cache.put("long", longLived);
+        cache.put("short", shortLived);
+        assertThat(cache.get("long")).isSameAs(longLived);
+        assertThat(cache.get("short")).isSameAs(shortLived);
+
+        Thread.sleep(100);
+        assertThat(cache.get("short")).isNull();
+        assertThat(cache.get("long")).isSameAs(longLived);
+    }
+
+    @Test
+    void neverCachesExpiredTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100);
+        cache.put("expired", claims(Instant.now().minusSeconds(1)));
+        assertThat(cache.get("expired")).isNull();
+    }
+
+    @Test
+    void keysOnTheWholeToken() {
+        assertThat(VerifiedTokenCache.keyOf("header.payload.signature"))
+                .isEqualTo(VerifiedTokenCache.keyOf("header.payload.signature"))
+                .isNotEqualTo(VerifiedTokenCache.keyOf("header.other.signature"));
+    }
+}